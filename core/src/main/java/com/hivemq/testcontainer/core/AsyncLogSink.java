@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Echoes container output on a dedicated thread, so the docker-java callback thread never waits for the console.
+ * The output is buffered in a bounded ring buffer and flushed in batches.
+ * If the sink thread dies, the buffered output is discarded and all further output is dropped, so neither printing
+ * nor closing ever blocks on a dead thread.
+ *
+ * @since 2.0.0
+ */
+class AsyncLogSink implements AutoCloseable {
+
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final @NotNull String POISON_PILL = new String();
+
+    private final @NotNull ArrayBlockingQueue<String> buffer;
+    private final @NotNull LogOverflowPolicy overflowPolicy;
+    private final @NotNull PrintStream out;
+    private final @NotNull LongAdder droppedLines;
+    private final @NotNull Thread thread;
+    private volatile boolean stopped;
+
+    AsyncLogSink(
+            final int bufferSize,
+            final @NotNull LogOverflowPolicy overflowPolicy,
+            final @NotNull PrintStream out,
+            final @NotNull LongAdder droppedLines) {
+
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must be greater than 0");
+        }
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.out = out;
+        this.droppedLines = droppedLines;
+        this.thread = new Thread(this::run, "hivemq-testcontainer-log-sink");
+        this.thread.setDaemon(true);
+    }
+
+    @NotNull AsyncLogSink start() {
+        thread.start();
+        return this;
+    }
+
+    void print(final @NotNull String output) {
+        if (stopped) {
+            droppedLines.increment();
+        } else if (overflowPolicy == LogOverflowPolicy.BLOCK) {
+            try {
+                buffer.put(output);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedLines.increment();
+            }
+        } else if (!buffer.offer(output)) {
+            droppedLines.increment();
+        }
+    }
+
+    /**
+     * Flushes all buffered output and stops the sink thread.
+     * If the buffered output is not flushed within 10 seconds, the sink thread is interrupted.
+     */
+    @Override
+    public void close() {
+        if (!thread.isAlive()) {
+            return;
+        }
+        try {
+            final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+            if (buffer.offer(POISON_PILL, CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            printBatches();
+        } finally {
+            stopped = true;
+            // releases producers that are blocked on the full buffer
+            buffer.clear();
+        }
+    }
+
+    private void printBatches() {
+        final List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        final StringBuilder builder = new StringBuilder();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(buffer.take());
+            } catch (final InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+            for (final String output : batch) {
+                //noinspection StringEquality
+                if (output == POISON_PILL) {
+                    running = false;
+                    break;
+                }
+                builder.append(output);
+            }
+            out.print(builder);
+            out.flush();
+            batch.clear();
+            builder.setLength(0);
+        }
+    }
+}
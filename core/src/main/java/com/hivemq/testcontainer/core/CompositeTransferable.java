@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.images.builder.Transferable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Combines multiple {@link Transferable}s with their container paths into one tar stream, so they can be copied into
+ * the container with a single request. The destination passed to {@link #transferTo(TarArchiveOutputStream, String)}
+ * is ignored, each transferable is written to its own container path.
+ *
+ * @since 2.0.0
+ */
+class CompositeTransferable implements Transferable {
+
+    private final @NotNull Map<String, Transferable> transferables;
+
+    CompositeTransferable(final @NotNull Map<String, Transferable> transferables) {
+        this.transferables = new LinkedHashMap<>(transferables);
+    }
+
+    @Override
+    public long getSize() {
+        long size = 0;
+        for (final Transferable transferable : transferables.values()) {
+            size += transferable.getSize();
+        }
+        return size;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return transferables.size() + " files";
+    }
+
+    @Override
+    public void transferTo(final @NotNull TarArchiveOutputStream tarArchiveOutputStream, final @NotNull String destination) {
+        transferables.forEach((containerPath, transferable) -> transferable.transferTo(tarArchiveOutputStream, containerPath));
+    }
+}
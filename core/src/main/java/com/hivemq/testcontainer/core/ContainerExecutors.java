@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared daemon executors of the HiveMQ Testcontainer.
+ *
+ * @since 2.0.0
+ */
+class ContainerExecutors {
+
+    private static final @NotNull ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("hivemq-testcontainer-scheduler"));
+    private static final @NotNull ExecutorService IO =
+            Executors.newSingleThreadExecutor(daemonThreadFactory("hivemq-testcontainer-io"));
+    private static final @NotNull ExecutorService STARTER =
+            Executors.newCachedThreadPool(daemonThreadFactory("hivemq-testcontainer-start"));
+    private static final @NotNull ExecutorService CALLBACKS =
+            Executors.newCachedThreadPool(daemonThreadFactory("hivemq-testcontainer-callback"));
+    private static final @NotNull ExecutorService SUPPLIERS = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+            daemonThreadFactory("hivemq-testcontainer-extension-supplier"));
+
+    private ContainerExecutors() {
+    }
+
+    static @NotNull ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * @return the executor for host file system work that nothing waits for, for example filling caches
+     */
+    static @NotNull ExecutorService io() {
+        return IO;
+    }
+
+    /**
+     * @return the executor for starting containers, a thread per container that is starting concurrently
+     */
+    static @NotNull ExecutorService starter() {
+        return STARTER;
+    }
+
+    /**
+     * @return the bounded executor for extension suppliers, which usually run whole maven or gradle builds
+     */
+    static @NotNull ExecutorService suppliers() {
+        return SUPPLIERS;
+    }
+
+    /**
+     * @return the executor completing futures returned to users, so their callbacks never block the threads of the
+     * HiveMQ Testcontainer, for example the thread consuming the container output
+     */
+    static @NotNull ExecutorService callbacks() {
+        return CALLBACKS;
+    }
+
+    static @NotNull ThreadFactory daemonThreadFactory(final @NotNull String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
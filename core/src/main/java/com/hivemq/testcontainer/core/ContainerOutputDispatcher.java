@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single consumer of the container output that fans every line out to all registered listeners.
+ * The container output is followed only once. Frames are reassembled into complete lines per output type
+ * before they reach any listener, and every line is decoded at most once.
+ *
+ * @since 2.0.0
+ */
+class ContainerOutputDispatcher implements Consumer<OutputFrame> {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(ContainerOutputDispatcher.class);
+
+    private final @NotNull List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final @NotNull Map<OutputFrame.OutputType, LineAssembler> lineAssemblers =
+            new EnumMap<>(OutputFrame.OutputType.class);
+
+    void addListener(final @NotNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void accept(final @NotNull OutputFrame outputFrame) {
+        final byte[] bytes = outputFrame.getBytes();
+        if (bytes == null || outputFrame.getType() == OutputFrame.OutputType.END) {
+            lineAssemblers.forEach((type, lineAssembler) ->
+                    lineAssembler.flush((line, offset, length) -> dispatch(type, line, offset, length)));
+            return;
+        }
+        final OutputFrame.OutputType type = outputFrame.getType();
+        lineAssemblers.computeIfAbsent(type, key -> new LineAssembler())
+                .append(bytes, (line, offset, length) -> dispatch(type, line, offset, length));
+    }
+
+    private void dispatch(
+            final @NotNull OutputFrame.OutputType type,
+            final byte @NotNull [] bytes,
+            final int offset,
+            final int length) {
+
+        final ContainerOutputFrame frame = new ContainerOutputFrame(type, bytes, offset, length);
+        for (final Listener listener : listeners) {
+            try {
+                listener.onOutput(frame);
+            } catch (final Exception e) {
+                logger.warn("Exception while dispatching container output to '{}'.", listener, e);
+            }
+        }
+    }
+
+    interface Listener {
+
+        void onOutput(@NotNull ContainerOutputFrame frame);
+    }
+}
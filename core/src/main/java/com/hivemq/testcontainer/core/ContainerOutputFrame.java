@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A single line of container output that is dispatched by the {@link ContainerOutputDispatcher}.
+ * <p>
+ * The line is a view on bytes that are only valid during the dispatch. It is decoded lazily and at most once,
+ * no matter how many listeners access the decoded output, and only copied if an {@link OutputFrame} is requested.
+ *
+ * @since 2.0.0
+ */
+class ContainerOutputFrame {
+
+    private final @NotNull OutputFrame.OutputType type;
+    private final byte @NotNull [] bytes;
+    private final int offset;
+    private final int length;
+    private @Nullable OutputFrame outputFrame;
+    private @Nullable String utf8String;
+
+    ContainerOutputFrame(
+            final @NotNull OutputFrame.OutputType type,
+            final byte @NotNull [] bytes,
+            final int offset,
+            final int length) {
+
+        this.type = type;
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @NotNull OutputFrame getOutputFrame() {
+        if (outputFrame == null) {
+            outputFrame = new OutputFrame(type, Arrays.copyOfRange(bytes, offset, offset + length));
+        }
+        return outputFrame;
+    }
+
+    byte @NotNull [] getBytes() {
+        return bytes;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Checks the raw bytes, without decoding the output.
+     *
+     * @param prefix the UTF-8 encoded prefix
+     * @return whether the output starts with the prefix
+     */
+    boolean startsWith(final byte @NotNull [] prefix) {
+        if (prefix.length > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull String getUtf8String() {
+        if (utf8String == null) {
+            utf8String = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+        return utf8String;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes keys that change whenever the content of files that are put into a container changes.
+ *
+ * @since 2.0.0
+ */
+class ContentKeys {
+
+    private ContentKeys() {
+    }
+
+    /**
+     * Hashes the relative paths, the sizes and the content of all files of the given file or directory.
+     *
+     * @param file the file or directory
+     * @return the content key
+     */
+    static @NotNull String of(final @NotNull File file) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        final Path root = file.toPath();
+        try (final Stream<Path> paths = Files.walk(root)) {
+            final List<Path> regularFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            for (final Path path : regularFiles) {
+                hasher.putString(root.relativize(path).toString().replace('\\', '/'), StandardCharsets.UTF_8);
+                hasher.putLong(Files.size(path));
+                Files.copy(path, Funnels.asOutputStream(hasher));
+            }
+        } catch (final IOException e) {
+            throw new ContainerLaunchException("Could not hash '" + file.getAbsolutePath() + "'.", e);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * @param transferable the transferable
+     * @return the content key of the content the transferable writes into the container
+     */
+    static @NotNull String of(final @NotNull Transferable transferable) {
+        if (transferable instanceof PackagedExtension) {
+            return ((PackagedExtension) transferable).getCacheKey();
+        }
+        if (transferable instanceof HiveMQExtensionZip) {
+            return of(((HiveMQExtensionZip) transferable).getZipFile());
+        }
+        if (transferable instanceof MountableFile) {
+            return of(new File(((MountableFile) transferable).getResolvedPath())) + ":" + transferable.getFileMode();
+        }
+        return transferable.getDescription() + ":" + transferable.getFileMode() + ":" + transferable.getSize();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.google.common.hash.Hasher;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.LazyFuture;
+
+/**
+ * An image built on top of a HiveMQ image, which is tagged in the hivemq-testcontainer namespace.
+ * <p>
+ * The base image is pulled if it is missing. The image is only built if no image with its name exists locally yet,
+ * and it is kept after the JVM exits, so the name must change whenever the base image or the content changes.
+ *
+ * @since 2.0.0
+ */
+abstract class DerivedImage extends LazyFuture<String> {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(DerivedImage.class);
+
+    private static final @NotNull String NAMESPACE = "hivemq-testcontainer/";
+
+    private final @NotNull DockerImageName baseImage;
+
+    /**
+     * @param baseImage the HiveMQ image to build on
+     */
+    DerivedImage(final @NotNull DockerImageName baseImage) {
+        this.baseImage = baseImage;
+    }
+
+    @Override
+    protected final @NotNull String resolve() {
+        final String baseImageName = baseImage.asCanonicalNameString();
+        new RemoteDockerImage(baseImage).get();
+        final DockerClient dockerClient = DockerClientFactory.instance().client();
+        final String baseImageId = dockerClient.inspectImageCmd(baseImageName).exec().getId();
+        final String imageName = imageName(baseImageId);
+
+        try {
+            dockerClient.inspectImageCmd(imageName).exec();
+            logger.debug("Using existing image '{}'.", imageName);
+            return imageName;
+        } catch (final NotFoundException e) {
+            logger.debug("Building image '{}'.", imageName);
+        }
+        return build(new ImageFromDockerfile(imageName, false), baseImageName).get();
+    }
+
+    /**
+     * @param baseImageId the id of the resolved base image
+     * @return the name of the image, usually created with {@link #imageName(String, Hasher)}
+     */
+    abstract @NotNull String imageName(@NotNull String baseImageId);
+
+    /**
+     * Adds the dockerfile and the files to the image, which is only called if the image does not exist yet.
+     *
+     * @param image         the image to build
+     * @param baseImageName the name of the base image to use in the FROM instruction
+     * @return the image to build
+     */
+    abstract @NotNull ImageFromDockerfile build(@NotNull ImageFromDockerfile image, @NotNull String baseImageName);
+
+    /**
+     * @param repository the repository of the image without the namespace
+     * @param hasher     the hasher that was fed with the id of the base image and the content of the image
+     * @return the name of the image in the hivemq-testcontainer namespace, tagged with the hash
+     */
+    static @NotNull String imageName(final @NotNull String repository, final @NotNull Hasher hasher) {
+        return NAMESPACE + repository + ":" + hasher.hash().toString().substring(0, 32);
+    }
+}
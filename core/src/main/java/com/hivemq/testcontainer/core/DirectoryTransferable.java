@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.images.builder.Transferable;
+
+import java.io.IOException;
+
+/**
+ * Creates an empty directory with the given mode inside the container.
+ *
+ * @since 2.0.0
+ */
+class DirectoryTransferable implements Transferable {
+
+    private static final int DIRECTORY_TYPE = 040000;
+
+    private final int mode;
+
+    DirectoryTransferable(final int mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public long getSize() {
+        return 0;
+    }
+
+    @Override
+    public int getFileMode() {
+        return DIRECTORY_TYPE | mode;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "directory";
+    }
+
+    @Override
+    public void transferTo(final @NotNull TarArchiveOutputStream tarArchiveOutputStream, final @NotNull String destination) {
+        final TarArchiveEntry entry = new TarArchiveEntry(destination.endsWith("/") ? destination : destination + "/");
+        entry.setMode(getFileMode());
+        try {
+            tarArchiveOutputStream.putArchiveEntry(entry);
+            tarArchiveOutputStream.closeArchiveEntry();
+        } catch (final IOException e) {
+            throw new RuntimeException("Can't transfer " + getDescription(), e);
+        }
+    }
+}
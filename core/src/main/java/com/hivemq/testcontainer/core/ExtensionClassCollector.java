@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import javassist.ClassPool;
+import javassist.NotFoundException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Discovers the classes that have to be packaged into an extension jar by walking the class references found in
+ * the bytecode, starting from the main class and the additional classes of an extension.
+ * <p>
+ * The references of each class are memoized per class loader, so extensions sharing classes do not read the same
+ * bytecode again. The memoized graphs only hold class names, they are weakly keyed by their class loader and
+ * softly referenced, so they neither keep a class loader reachable nor hold on to memory the JVM needs.
+ * Each level of the walk is processed in parallel.
+ *
+ * @since 2.0.0
+ */
+class ExtensionClassCollector {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(ExtensionClassCollector.class);
+
+    static final @NotNull ImmutableList<String> DEFAULT_EXCLUDED_PACKAGES = ImmutableList.of(
+            "java.", "javax.", "jdk.", "sun.", "com.sun.", "com.hivemq.extension.sdk.");
+
+    private static final @NotNull Object BOOTSTRAP_CLASS_LOADER = new Object();
+    private static final @NotNull ConcurrentMap<Object, Map<String, Optional<Set<String>>>> GRAPHS =
+            CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .softValues()
+                    .<Object, Map<String, Optional<Set<String>>>>build()
+                    .asMap();
+
+    private ExtensionClassCollector() {
+    }
+
+    /**
+     * Collects the root classes and the classes referenced by them.
+     *
+     * @param classPool   the pool the bytecode is read from
+     * @param classLoader the class loader the classes belong to, used to scope the memoized class graph
+     * @param roots       the names of the classes to start from
+     * @param transitive  whether the references of referenced classes are followed as well, or only the references
+     *                    of the roots
+     * @param filter      decides which referenced classes are collected and followed
+     * @param scanned     receives the names of the classes whose bytecode had to be read, because they were not
+     *                    memoized yet
+     * @return the sorted names of all collected classes that could be resolved
+     * @throws NotFoundException if one of the roots can not be resolved
+     */
+    static @NotNull Set<String> collect(
+            final @NotNull ClassPool classPool,
+            final @Nullable ClassLoader classLoader,
+            final @NotNull Collection<String> roots,
+            final boolean transitive,
+            final @NotNull Predicate<String> filter,
+            final @NotNull Set<String> scanned) throws NotFoundException {
+
+        final Map<String, Optional<Set<String>>> graph = graph(classLoader);
+        final Set<String> collected = ConcurrentHashMap.newKeySet();
+        final Set<String> unresolved = ConcurrentHashMap.newKeySet();
+        collected.addAll(roots);
+
+        List<String> level = new ArrayList<>(collected);
+        boolean expand = true;
+        while (!level.isEmpty()) {
+            final boolean expandLevel = expand;
+            final List<String> next = level.parallelStream()
+                    .flatMap(className -> {
+                        final Optional<Set<String>> references = references(graph, classPool, className, scanned);
+                        if (!references.isPresent()) {
+                            unresolved.add(className);
+                            return Stream.empty();
+                        }
+                        return expandLevel ? references.get().stream() : Stream.empty();
+                    })
+                    .filter(filter)
+                    .filter(collected::add)
+                    .collect(Collectors.toList());
+
+            for (final String root : roots) {
+                if (unresolved.contains(root)) {
+                    throw new NotFoundException(root);
+                }
+            }
+            level = next;
+            expand = transitive;
+        }
+
+        for (final String className : unresolved) {
+            logger.debug("Class '{}' could not be resolved and will not be packaged.", className);
+        }
+        collected.removeAll(unresolved);
+        return new TreeSet<>(collected);
+    }
+
+    /**
+     * Creates a filter accepting classes that are inside one of the included packages (all packages if none are
+     * included) and outside of the excluded packages and the {@link #DEFAULT_EXCLUDED_PACKAGES}.
+     *
+     * @param includedPackages the packages to include
+     * @param excludedPackages the packages to exclude additionally to the defaults
+     * @return the filter
+     */
+    static @NotNull Predicate<String> packageFilter(
+            final @NotNull Collection<String> includedPackages,
+            final @NotNull Collection<String> excludedPackages) {
+
+        final List<String> included = prefixes(includedPackages);
+        final List<String> excluded = prefixes(excludedPackages);
+        excluded.addAll(DEFAULT_EXCLUDED_PACKAGES);
+        return className -> (included.isEmpty() || startsWithAny(className, included)) &&
+                !startsWithAny(className, excluded);
+    }
+
+    private static @NotNull Map<String, Optional<Set<String>>> graph(final @Nullable ClassLoader classLoader) {
+        return GRAPHS.computeIfAbsent(classLoader != null ? classLoader : BOOTSTRAP_CLASS_LOADER,
+                key -> new ConcurrentHashMap<>());
+    }
+
+    private static @NotNull Optional<Set<String>> references(
+            final @NotNull Map<String, Optional<Set<String>>> graph,
+            final @NotNull ClassPool classPool,
+            final @NotNull String className,
+            final @NotNull Set<String> scanned) {
+
+        final Optional<Set<String>> memoized = graph.get(className);
+        if (memoized != null) {
+            return memoized;
+        }
+        Optional<Set<String>> references;
+        scanned.add(className);
+        try {
+            final Set<String> names = new HashSet<>();
+            for (final String name : classPool.get(className).getRefClasses()) {
+                if (!name.startsWith("[")) {
+                    names.add(name);
+                }
+            }
+            references = Optional.of(Collections.unmodifiableSet(names));
+        } catch (final NotFoundException e) {
+            references = Optional.empty();
+        }
+        final Optional<Set<String>> previous = graph.putIfAbsent(className, references);
+        return previous != null ? previous : references;
+    }
+
+    private static @NotNull List<String> prefixes(final @NotNull Collection<String> packages) {
+        final List<String> prefixes = new ArrayList<>(packages.size());
+        for (final String packageName : packages) {
+            prefixes.add(packageName.endsWith(".") ? packageName : packageName + ".");
+        }
+        return prefixes;
+    }
+
+    private static boolean startsWithAny(final @NotNull String className, final @NotNull List<String> prefixes) {
+        for (final String prefix : prefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
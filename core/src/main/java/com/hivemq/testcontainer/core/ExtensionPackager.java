@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.hivemq.extension.sdk.api.ExtensionMain;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+import org.apache.commons.io.FileUtils;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.ContainerLaunchException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Packages a {@link HiveMQExtension} into an extension directory containing the hivemq-extension.xml
+ * and the extension.jar in memory.
+ * <p>
+ * Packaged extensions are cached in the {@link HostWorkspace} keyed by a hash of the bytecode of all packaged classes
+ * and of the descriptor fields, so unchanged extensions are not packaged again, also across JVMs.
+ *
+ * @since 2.0.0
+ */
+class ExtensionPackager {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(ExtensionPackager.class);
+
+    private static final @NotNull String validPluginXML =
+            "<hivemq-extension>" + //
+                    "   <id>%s</id>" + //
+                    "   <name>%s</name>" + //
+                    "   <version>%s</version>" + //
+                    "   <priority>%s</priority>" +  //
+                    "   <start-priority>%s</start-priority>" +  //
+                    "</hivemq-extension>";
+
+    private static final @NotNull String CACHE_NAMESPACE = "extensions";
+
+    private ExtensionPackager() {
+    }
+
+    /**
+     * Packages the extension in memory. The packaged extension is taken from the cache if present, otherwise it is
+     * stored in the cache asynchronously, so the container does not have to wait for it to be written.
+     */
+    static @NotNull PackagedExtension packageExtension(
+            final @NotNull HiveMQExtension hiveMQExtension,
+            final @NotNull Consumer<ExtensionPackagingStatistics> statisticsConsumer) throws Exception {
+
+        final long start = System.nanoTime();
+        final String xml = String.format(
+                validPluginXML,
+                hiveMQExtension.getId(),
+                hiveMQExtension.getName(),
+                hiveMQExtension.getVersion(),
+                hiveMQExtension.getPriority(),
+                hiveMQExtension.getStartPriority());
+
+        final ClassLoader classLoader = hiveMQExtension.getMainClass().getClassLoader();
+        final List<String> roots = new ArrayList<>();
+        roots.add(hiveMQExtension.getMainClass().getName());
+        for (final Class<?> additionalClass : hiveMQExtension.getAdditionalClasses()) {
+            roots.add(additionalClass.getName());
+        }
+
+        // a pool per extension instead of the default pool, which would keep every CtClass for the life of the JVM
+        final ClassPool classPool = new ClassPool();
+        classPool.appendClassPath(new LoaderClassPath(
+                classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader));
+        final Set<String> scannedClasses = ConcurrentHashMap.newKeySet();
+        final Set<String> classNames;
+        try {
+            classNames = ExtensionClassCollector.collect(
+                    classPool,
+                    classLoader,
+                    roots,
+                    hiveMQExtension.isTransitiveClassDiscovery(),
+                    ExtensionClassCollector.packageFilter(
+                            hiveMQExtension.getIncludedPackages(), hiveMQExtension.getExcludedPackages()),
+                    scannedClasses);
+        } finally {
+            for (final String scannedClass : scannedClasses) {
+                final CtClass ctClass = classPool.getOrNull(scannedClass);
+                if (ctClass != null) {
+                    ctClass.detach();
+                }
+            }
+        }
+
+        final String key = cacheKey(hiveMQExtension, xml, classNames, classLoader);
+        final File cachedDir = HostWorkspace.getCached(CACHE_NAMESPACE, key);
+        final File extensionDir = cachedDir == null ? null : new File(cachedDir, hiveMQExtension.getId());
+        final File cachedJar = extensionDir == null ? null : new File(extensionDir, "extension.jar");
+        if (cachedJar != null && cachedJar.exists()) {
+            logger.debug("Using cached extension '{}' from '{}'.", hiveMQExtension.getId(), extensionDir);
+            final PackagedExtension packagedExtension = new PackagedExtension(
+                    hiveMQExtension.getId(),
+                    key,
+                    xml.getBytes(Charset.defaultCharset()),
+                    hiveMQExtension.isDisabledOnStartup(),
+                    Files.readAllBytes(cachedJar.toPath()));
+            statisticsConsumer.accept(new ExtensionPackagingStatistics(
+                    hiveMQExtension.getId(), scannedClasses.size(), classNames.size(), 0, elapsedSince(start), true));
+            return packagedExtension;
+        }
+
+        final JavaArchive javaArchive =
+                ShrinkWrap.create(JavaArchive.class)
+                        .addAsServiceProviderAndClasses(ExtensionMain.class, hiveMQExtension.getMainClass());
+        for (final String className : classNames) {
+            logger.debug("Trying to package class '{}' into extension '{}'.", className, hiveMQExtension.getId());
+            javaArchive.addClass(className, classLoader);
+        }
+        final ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        javaArchive.as(ZipExporter.class).exportTo(jar);
+
+        final PackagedExtension packagedExtension = new PackagedExtension(
+                hiveMQExtension.getId(),
+                key,
+                xml.getBytes(Charset.defaultCharset()),
+                hiveMQExtension.isDisabledOnStartup(),
+                jar.toByteArray());
+        statisticsConsumer.accept(new ExtensionPackagingStatistics(
+                hiveMQExtension.getId(),
+                scannedClasses.size(),
+                classNames.size(),
+                packagedExtension.getSize(),
+                elapsedSince(start),
+                false));
+
+        ContainerExecutors.io().execute(() -> {
+            try {
+                store(packagedExtension);
+            } catch (final Exception e) {
+                logger.debug("Could not cache extension '{}'.", hiveMQExtension.getId(), e);
+            }
+        });
+        return packagedExtension;
+    }
+
+    /**
+     * Writes the packaged extension into the cache.
+     */
+    private static void store(final @NotNull PackagedExtension packagedExtension) throws IOException {
+        HostWorkspace.cached(CACHE_NAMESPACE, packagedExtension.getCacheKey(), directory -> {
+            final File extensionDir = new File(directory, packagedExtension.getId());
+            FileUtils.writeByteArrayToFile(new File(extensionDir, "hivemq-extension.xml"), packagedExtension.getXml());
+            if (packagedExtension.isDisabledOnStartup()) {
+                final File disabled = new File(extensionDir, "DISABLED");
+                final boolean newFile = disabled.createNewFile();
+                if (!newFile) {
+                    throw new ContainerLaunchException("Could not create DISABLED file '" + disabled.getAbsolutePath() + "' on host machine.");
+                }
+            }
+            FileUtils.writeByteArrayToFile(new File(extensionDir, "extension.jar"), packagedExtension.getJar());
+        });
+    }
+
+    private static @NotNull Duration elapsedSince(final long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private static @NotNull String cacheKey(
+            final @NotNull HiveMQExtension hiveMQExtension,
+            final @NotNull String xml,
+            final @NotNull Set<String> classNames,
+            final @Nullable ClassLoader classLoader) throws IOException {
+
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(xml, StandardCharsets.UTF_8);
+        hasher.putBoolean(hiveMQExtension.isDisabledOnStartup());
+        hasher.putString(hiveMQExtension.getMainClass().getName(), StandardCharsets.UTF_8);
+        for (final String className : classNames) {
+            hasher.putInt(className.length());
+            hasher.putString(className, StandardCharsets.UTF_8);
+            final byte[] bytecode = readBytecode(classLoader, className);
+            hasher.putInt(bytecode.length);
+            hasher.putBytes(bytecode);
+        }
+        return hasher.hash().toString();
+    }
+
+    private static byte @NotNull [] readBytecode(
+            final @Nullable ClassLoader classLoader,
+            final @NotNull String className) throws IOException {
+
+        final String resource = className.replace('.', '/') + ".class";
+        try (final InputStream inputStream = classLoader == null ?
+                ClassLoader.getSystemResourceAsStream(resource) : classLoader.getResourceAsStream(resource)) {
+            return inputStream == null ? new byte[0] : ByteStreams.toByteArray(inputStream);
+        }
+    }
+}
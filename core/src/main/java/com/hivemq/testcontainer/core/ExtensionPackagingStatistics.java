@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Statistics about the packaging of a {@link HiveMQExtension}.
+ *
+ * @see HiveMQTestContainerCore#getPackagingStatistics()
+ * @since 2.0.0
+ */
+public final class ExtensionPackagingStatistics {
+
+    private final @NotNull String extensionId;
+    private final int classesScanned;
+    private final int classesPackaged;
+    private final long bytesWritten;
+    private final @NotNull Duration elapsed;
+    private final boolean cached;
+
+    ExtensionPackagingStatistics(
+            final @NotNull String extensionId,
+            final int classesScanned,
+            final int classesPackaged,
+            final long bytesWritten,
+            final @NotNull Duration elapsed,
+            final boolean cached) {
+
+        this.extensionId = extensionId;
+        this.classesScanned = classesScanned;
+        this.classesPackaged = classesPackaged;
+        this.bytesWritten = bytesWritten;
+        this.elapsed = elapsed;
+        this.cached = cached;
+    }
+
+    /**
+     * @return the id of the packaged extension
+     */
+    public @NotNull String getExtensionId() {
+        return extensionId;
+    }
+
+    /**
+     * @return the amount of classes whose bytecode was read to discover the classes of the extension,
+     *         classes already known from previous packagings are not counted
+     */
+    public int getClassesScanned() {
+        return classesScanned;
+    }
+
+    /**
+     * @return the amount of classes contained in the extension.jar
+     */
+    public int getClassesPackaged() {
+        return classesPackaged;
+    }
+
+    /**
+     * @return the amount of bytes written to the extension directory, 0 if a cached extension was reused
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return the time it took to package the extension
+     */
+    public @NotNull Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return whether a cached extension was reused instead of packaging it again
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "ExtensionPackagingStatistics{" +
+                "extensionId='" + extensionId + '\'' +
+                ", classesScanned=" + classesScanned +
+                ", classesPackaged=" + classesPackaged +
+                ", bytesWritten=" + bytesWritten +
+                ", elapsed=" + elapsed +
+                ", cached=" + cached +
+                '}';
+    }
+}
@@ -18,19 +18,19 @@ package com.hivemq.testcontainer.core;
 import net.lingala.zip4j.ZipFile;
 import org.apache.commons.lang3.SystemUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.testcontainers.utility.MountableFile;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * This class automates the process of packaging a HiveMQ extension from a gradle project.
@@ -41,9 +41,6 @@ import java.util.stream.Collectors;
  */
 public class GradleHiveMQExtensionSupplier implements Supplier<MountableFile> {
 
-    private static final @NotNull Pattern ROOT_PROJECT_PATTERN = Pattern.compile(".*'(.*)'");
-    private static final @NotNull String PROPERTY_REGEX = "(.*): (.*)";
-
     private static final @NotNull String BUILD_STARTED =
             "=================================================================\n" +
                     "===   Embedded Gradle build started: %s   ===\n" +
@@ -55,9 +52,23 @@ public class GradleHiveMQExtensionSupplier implements Supplier<MountableFile> {
                     "=================================================================";
 
     private static final @NotNull String TASK = "hivemqExtensionZip";
+    private static final @NotNull String CACHE_NAMESPACE = "gradle-extensions";
+    private static final @NotNull String EXTENSION_ZIP_MARKER = "hivemq-testcontainer-extension-zip=";
+    private static final @NotNull String EXTENSION_ZIP_DIRECTORY = "build/hivemq-extension";
+    private static final @NotNull String INIT_SCRIPT =
+            "gradle.taskGraph.whenReady { graph ->\n" +
+                    "    graph.allTasks.findAll { it.name == '" + TASK + "' }.each { task ->\n" +
+                    "        println '" + EXTENSION_ZIP_MARKER + "' + task.outputs.files.singleFile.absolutePath\n" +
+                    "    }\n" +
+                    "}\n";
+    private static final @NotNull String @NotNull [] EXCLUDED_INPUTS = {"build", ".gradle", ".git", ".idea"};
+
+    private static final @NotNull Map<File, ProjectModel> projectModels = new ConcurrentHashMap<>();
+    private static @Nullable File initScript;
 
     private final @NotNull File gradleProjectDirectory;
     private boolean quiet = false;
+    private boolean cached = true;
 
     /**
      * Creates a Gradle HiveMQ extension {@link Supplier}.
@@ -79,70 +90,142 @@ public class GradleHiveMQExtensionSupplier implements Supplier<MountableFile> {
 
     /**
      * Packages the HiveMQ extension, copies it to a temporary directory and returns the directory as a {@link File}.
+     * <p>
+     * Gradle is invoked once, an init script reports the location of the extension zip. If no file in the project
+     * directory changed since the last call in this JVM, except in the build, .gradle, .git and .idea directories,
+     * the previously packaged extension is returned without invoking gradle. If gradle produced the same extension zip as before, also in a previous JVM,
+     * the previously extracted extension is returned.
      *
      * @return the {@link File} of the packaged HiveMQ extension
+     * @see #uncached()
      * @since 1.3.0
      */
     @Override
     public @NotNull MountableFile get() {
-        System.out.printf((BUILD_STARTED) + "%n", gradleProjectDirectory);
-
         try {
-            final ProcessBuilder extensionZipProcessBuilder = new ProcessBuilder();
-            extensionZipProcessBuilder.directory(gradleProjectDirectory);
-            extensionZipProcessBuilder.command(getCommandForOs(gradleProjectDirectory), TASK);
-            extensionZipProcessBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
-
-            if (!quiet) {
-                extensionZipProcessBuilder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
-            }
-            final Process extensionZipProcess = extensionZipProcessBuilder.start();
-            final int extensionZipExitCode = extensionZipProcess.waitFor();
-            if (extensionZipExitCode != 0) {
-                throw new IllegalStateException("Gradle build exited with code " + extensionZipExitCode);
-            }
-
-            final ProcessBuilder propertiesProcessBuilder = new ProcessBuilder();
-            propertiesProcessBuilder.directory(gradleProjectDirectory);
-            propertiesProcessBuilder.command(getCommandForOs(gradleProjectDirectory), "properties", "-q");
-            propertiesProcessBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            final File extensionDirectory = PathUtil.extractedExtensionDirectory(extract(extensionZip()));
+            return MountableFile.forHostPath(extensionDirectory.toPath());
+        } catch (final Exception e) {
+            throw new RuntimeException("Exception while building the HiveMQ extension with gradle.", e);
+        }
+    }
 
-            final Process propertiesProcess = propertiesProcessBuilder.start();
-            final int propertiesExitCode = propertiesProcess.waitFor();
-            if (propertiesExitCode != 0) {
-                throw new IllegalStateException("Gradle build exited with code " + propertiesExitCode);
-            }
+    /**
+     * Packages the HiveMQ extension like {@link #get()}, but returns the extension zip produced by gradle without
+     * extracting it. The extension is streamed from the zip into the container when the container is created.
+     * <p>
+     * The zip is not copied, so it must not be rebuilt by gradle until the container is created.
+     *
+     * @return the packaged HiveMQ extension zip
+     * @see HiveMQTestContainerCore#withExtension(HiveMQExtensionZip)
+     * @see HiveMQTestContainerCore#withExtensionZip(Supplier)
+     * @since 2.0.0
+     */
+    public @NotNull HiveMQExtensionZip getZip() {
+        try {
+            return new HiveMQExtensionZip(extensionZip());
+        } catch (final Exception e) {
+            throw new RuntimeException("Exception while building the HiveMQ extension with gradle.", e);
+        }
+    }
 
-            final BufferedReader br = new BufferedReader(new InputStreamReader(propertiesProcess.getInputStream()));
+    /**
+     * @return the extension zip, built by gradle unless the project did not change since the last call in this JVM
+     */
+    private @NotNull File extensionZip() throws IOException, InterruptedException {
+        final File projectDirectory = gradleProjectDirectory.getCanonicalFile();
+        final String inputHash = InputFingerprint.of(
+                projectDirectory, InputFingerprint.projectInputs(projectDirectory, EXCLUDED_INPUTS), Collections.emptyMap());
+        final ProjectModel previous = projectModels.get(projectDirectory);
+        if (cached && previous != null && previous.inputHash.equals(inputHash) && previous.extensionZip.isFile()) {
+            return previous.extensionZip;
+        }
 
-            final Map<String, String> gradleProperties = br.lines()
-                    .filter(s -> s.matches(PROPERTY_REGEX))
-                    .map(s -> {
-                        final String[] splits = s.split(": ");
-                        return new AbstractMap.SimpleEntry<>(splits[0], splits[1]);
-                    })
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        System.out.printf((BUILD_STARTED) + "%n", gradleProjectDirectory);
+        final File extensionZip = buildExtensionZip();
+        System.out.printf((BUILD_STOPPED) + "%n", gradleProjectDirectory);
 
+        projectModels.put(projectDirectory, new ProjectModel(inputHash, extensionZip));
+        return extensionZip;
+    }
 
-            System.out.printf((BUILD_STOPPED) + "%n", this.gradleProjectDirectory);
+    /**
+     * Runs the {@value #TASK} task in a single gradle invocation.
+     * <p>
+     * The init script does not run if gradle reuses a configuration cache entry, then the extension zip is looked up
+     * in the default output directory of the task.
+     *
+     * @return the extension zip reported by the init script
+     */
+    private @NotNull File buildExtensionZip() throws IOException, InterruptedException {
+        final ProcessBuilder processBuilder = new ProcessBuilder();
+        processBuilder.directory(gradleProjectDirectory);
+        processBuilder.command(
+                getCommandForOs(gradleProjectDirectory), "--init-script", initScript().getAbsolutePath(), TASK);
+        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
 
-            final String projectVersion = gradleProperties.get("version");
-            final String rootProject = gradleProperties.get("rootProject");
-            final Matcher matcher = ROOT_PROJECT_PATTERN.matcher(rootProject);
-            final boolean b = matcher.find();
-            final String projectName = matcher.group(1);
+        final Process process = processBuilder.start();
+        String extensionZip = null;
+        try (final BufferedReader reader =
+                     new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(EXTENSION_ZIP_MARKER)) {
+                    extensionZip = line.substring(EXTENSION_ZIP_MARKER.length());
+                } else if (!quiet) {
+                    System.out.println(line);
+                }
+            }
+        }
+        final int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Gradle build exited with code " + exitCode);
+        }
+        if (extensionZip == null) {
+            return builtExtensionZip(gradleProjectDirectory);
+        }
+        return new File(extensionZip);
+    }
 
-            final ZipFile zipFile = new ZipFile(
-                    new File(gradleProjectDirectory,
-                            "build/hivemq-extension/" + projectName + "-" + projectVersion + ".zip"));
-            final Path tempDirectory = Files.createTempDirectory("");
+    /**
+     * @param gradleProjectDirectory the gradle project directory
+     * @return the most recently built zip in the default output directory of the {@value #TASK} task
+     */
+    static @NotNull File builtExtensionZip(final @NotNull File gradleProjectDirectory) {
+        final File[] zips = new File(gradleProjectDirectory, EXTENSION_ZIP_DIRECTORY)
+                .listFiles(file -> file.isFile() && file.getName().endsWith(".zip"));
+        if (zips == null || zips.length == 0) {
+            throw new IllegalStateException("Gradle build did not run the task '" + TASK + "' and no extension zip " +
+                    "was found in '" + new File(gradleProjectDirectory, EXTENSION_ZIP_DIRECTORY) + "'.");
+        }
+        File newest = zips[0];
+        for (final File zip : zips) {
+            if (zip.lastModified() > newest.lastModified()) {
+                newest = zip;
+            }
+        }
+        return newest;
+    }
 
-            zipFile.extractAll(tempDirectory.toString());
-            return MountableFile.forHostPath(tempDirectory.resolve(projectName));
+    /**
+     * Extracts the extension zip, unless the same zip was already extracted before, also in a previous JVM.
+     *
+     * @return the directory the extension zip was extracted to
+     */
+    private static @NotNull File extract(final @NotNull File extensionZip) throws IOException {
+        final String zipHash = InputFingerprint.of(
+                extensionZip.getParentFile(), Collections.singletonList(extensionZip), Collections.emptyMap());
+        return HostWorkspace.cached(CACHE_NAMESPACE, zipHash,
+                directory -> new ZipFile(extensionZip).extractAll(directory.getAbsolutePath()));
+    }
 
-        } catch (final Exception e) {
-            throw new RuntimeException("Exception while building the HiveMQ extension with gradle.", e);
+    private static synchronized @NotNull File initScript() throws IOException {
+        if (initScript == null || !initScript.isFile()) {
+            final File file = new File(HostWorkspace.temporaryDirectory("gradle-init"), "hivemq-extension-zip.gradle");
+            Files.write(file.toPath(), INIT_SCRIPT.getBytes(StandardCharsets.UTF_8));
+            initScript = file;
         }
+        return initScript;
     }
 
     private @NotNull String getCommandForOs(final @NotNull File gradleProjectFile) {
@@ -180,4 +263,32 @@ public class GradleHiveMQExtensionSupplier implements Supplier<MountableFile> {
         this.quiet = true;
         return this;
     }
+
+    /**
+     * Always invoke gradle, instead of reusing the extension packaged by a previous call in this JVM if the project
+     * directory did not change.
+     * <p>
+     * This is required if the extension depends on something else that may change, for example a sibling project.
+     *
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull GradleHiveMQExtensionSupplier uncached() {
+        this.cached = false;
+        return this;
+    }
+
+    /**
+     * What is known about a gradle project after it was packaged.
+     */
+    private static class ProjectModel {
+
+        private final @NotNull String inputHash;
+        private final @NotNull File extensionZip;
+
+        ProjectModel(final @NotNull String inputHash, final @NotNull File extensionZip) {
+            this.inputHash = inputHash;
+            this.extensionZip = extensionZip;
+        }
+    }
 }
@@ -33,6 +33,9 @@ public class HiveMQExtension {
     private final boolean disabledOnStartup;
     private final @NotNull Class<? extends ExtensionMain> mainClass;
     private final @NotNull ImmutableList<Class<?>> additionalClasses;
+    private final boolean transitiveClassDiscovery;
+    private final @NotNull ImmutableList<String> includedPackages;
+    private final @NotNull ImmutableList<String> excludedPackages;
 
     private HiveMQExtension(
             final @NotNull String id,
@@ -42,7 +45,10 @@ public class HiveMQExtension {
             final int startPriority,
             final boolean disabledOnStartup,
             final @NotNull Class<? extends ExtensionMain> mainClass,
-            final @NotNull ImmutableList<Class<?>> additionalClasses) {
+            final @NotNull ImmutableList<Class<?>> additionalClasses,
+            final boolean transitiveClassDiscovery,
+            final @NotNull ImmutableList<String> includedPackages,
+            final @NotNull ImmutableList<String> excludedPackages) {
 
         this.id = id;
         this.name = name;
@@ -52,6 +58,9 @@ public class HiveMQExtension {
         this.disabledOnStartup = disabledOnStartup;
         this.mainClass = mainClass;
         this.additionalClasses = additionalClasses;
+        this.transitiveClassDiscovery = transitiveClassDiscovery;
+        this.includedPackages = includedPackages;
+        this.excludedPackages = excludedPackages;
     }
 
     public @NotNull String getId() {
@@ -86,6 +95,18 @@ public class HiveMQExtension {
         return additionalClasses;
     }
 
+    public boolean isTransitiveClassDiscovery() {
+        return transitiveClassDiscovery;
+    }
+
+    public @NotNull ImmutableList<String> getIncludedPackages() {
+        return includedPackages;
+    }
+
+    public @NotNull ImmutableList<String> getExcludedPackages() {
+        return excludedPackages;
+    }
+
     public static @NotNull Builder builder() {
         return new Builder();
     }
@@ -99,6 +120,9 @@ public class HiveMQExtension {
         private boolean disabledOnStartup = false;
         private @Nullable Class<? extends ExtensionMain> mainClass;
         private final @NotNull ImmutableList.Builder<Class<?>> additionalClassesBuilder = ImmutableList.builder();
+        private boolean transitiveClassDiscovery = false;
+        private final @NotNull ImmutableList.Builder<String> includedPackagesBuilder = ImmutableList.builder();
+        private final @NotNull ImmutableList.Builder<String> excludedPackagesBuilder = ImmutableList.builder();
 
         public HiveMQExtension build() {
             if (id == null || id.isEmpty()) {
@@ -121,7 +145,10 @@ public class HiveMQExtension {
                     startPriority,
                     disabledOnStartup,
                     mainClass,
-                    additionalClassesBuilder.build()
+                    additionalClassesBuilder.build(),
+                    transitiveClassDiscovery,
+                    includedPackagesBuilder.build(),
+                    excludedPackagesBuilder.build()
             );
         }
 
@@ -164,5 +191,41 @@ public class HiveMQExtension {
             this.additionalClassesBuilder.add(clazz);
             return this;
         }
+
+        /**
+         * Enables packaging of all classes that are reachable from the main class and the additional classes,
+         * instead of only the classes they reference directly.
+         *
+         * @param transitiveClassDiscovery whether referenced classes are discovered transitively
+         * @return the builder
+         */
+        public @NotNull Builder transitiveClassDiscovery(final boolean transitiveClassDiscovery) {
+            this.transitiveClassDiscovery = transitiveClassDiscovery;
+            return this;
+        }
+
+        /**
+         * Restricts the discovered classes to the given package and its sub packages.
+         * If no package is included, classes of all packages are discovered.
+         *
+         * @param packageName the name of the package
+         * @return the builder
+         */
+        public @NotNull Builder includePackage(final @NotNull String packageName) {
+            this.includedPackagesBuilder.add(packageName);
+            return this;
+        }
+
+        /**
+         * Excludes the given package and its sub packages from the discovered classes.
+         * JDK packages and the HiveMQ extension SDK are always excluded.
+         *
+         * @param packageName the name of the package
+         * @return the builder
+         */
+        public @NotNull Builder excludePackage(final @NotNull String packageName) {
+            this.excludedPackagesBuilder.add(packageName);
+            return this;
+        }
     }
 }
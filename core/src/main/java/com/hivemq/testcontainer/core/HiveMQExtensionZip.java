@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.images.builder.Transferable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A HiveMQ extension distribution zip, which is transferred into the container without extracting it on the host.
+ * <p>
+ * The distribution zip must contain a single extension directory with a hivemq-extension.xml, as built by the HiveMQ
+ * maven and gradle tooling. When the container is created, the entries of this directory are streamed from the zip
+ * straight into the tar archive that is uploaded to the container.
+ *
+ * @see MavenHiveMQExtensionSupplier#getZip()
+ * @see GradleHiveMQExtensionSupplier#getZip()
+ * @since 2.0.0
+ */
+public class HiveMQExtensionZip implements Transferable {
+
+    private static final int DIRECTORY_MODE = 040777;
+    private static final int FILE_MODE = 0100777;
+
+    private final @NotNull File zipFile;
+    private final @NotNull String rootDirectory;
+    private final @NotNull String extensionId;
+    private final long size;
+
+    /**
+     * Reads the extension id from the hivemq-extension.xml in the distribution zip.
+     *
+     * @param zipFile the distribution zip of the extension
+     * @throws IOException if the zip can not be read
+     * @throws IllegalStateException if the zip does not contain a hivemq-extension.xml with an id
+     * @since 2.0.0
+     */
+    public HiveMQExtensionZip(final @NotNull File zipFile) throws IOException {
+        this.zipFile = zipFile;
+        try (final ZipFile zip = new ZipFile(zipFile)) {
+            ZipEntry descriptor = null;
+            long size = 0;
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName();
+                if (name.indexOf('/') == name.lastIndexOf('/') && name.endsWith("/hivemq-extension.xml")) {
+                    descriptor = entry;
+                }
+                if (!entry.isDirectory()) {
+                    size += entry.getSize();
+                }
+            }
+            if (descriptor == null) {
+                throw new IllegalStateException(
+                        "'" + zipFile.getAbsolutePath() + "' does not contain an extension directory with a hivemq-extension.xml.");
+            }
+            this.rootDirectory = descriptor.getName().substring(0, descriptor.getName().indexOf('/') + 1);
+            this.size = size;
+            try (final InputStream inputStream = zip.getInputStream(descriptor)) {
+                this.extensionId = HiveMQTestContainerCore.parseExtensionId(
+                        IOUtils.toString(inputStream, StandardCharsets.UTF_8),
+                        zipFile.getAbsolutePath() + "!/" + descriptor.getName());
+            }
+        }
+    }
+
+    /**
+     * @return the distribution zip of the extension
+     * @since 2.0.0
+     */
+    public @NotNull File getZipFile() {
+        return zipFile;
+    }
+
+    /**
+     * @return the id of the extension, which is also the name of its directory inside the container
+     * @since 2.0.0
+     */
+    public @NotNull String getExtensionId() {
+        return extensionId;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "extension zip '" + zipFile.getAbsolutePath() + "'";
+    }
+
+    @Override
+    public void transferTo(final @NotNull TarArchiveOutputStream tarArchiveOutputStream, final @NotNull String destination) {
+        final String directory = destination.endsWith("/") ? destination : destination + "/";
+        final Set<String> directories = new HashSet<>();
+        try (final ZipFile zip = new ZipFile(zipFile)) {
+            putDirectoryEntry(tarArchiveOutputStream, directory);
+            directories.add(directory);
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                if (!entry.getName().startsWith(rootDirectory) || entry.getName().equals(rootDirectory)) {
+                    continue;
+                }
+                final String name = directory + entry.getName().substring(rootDirectory.length());
+                if (entry.isDirectory()) {
+                    putDirectory(tarArchiveOutputStream, name, directories);
+                } else {
+                    putDirectory(tarArchiveOutputStream, parent(name), directories);
+                    putFile(tarArchiveOutputStream, name, zip, entry);
+                }
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Can't transfer " + getDescription(), e);
+        }
+    }
+
+    /**
+     * Puts the directory and its missing parent directories below the destination, so all directories of the
+     * extension get the same mode, also if the zip contains no entries for them.
+     */
+    private static void putDirectory(
+            final @NotNull TarArchiveOutputStream tarArchiveOutputStream,
+            final @NotNull String name,
+            final @NotNull Set<String> directories) throws IOException {
+
+        if (directories.contains(name)) {
+            return;
+        }
+        putDirectory(tarArchiveOutputStream, parent(name), directories);
+        putDirectoryEntry(tarArchiveOutputStream, name);
+        directories.add(name);
+    }
+
+    private static void putDirectoryEntry(
+            final @NotNull TarArchiveOutputStream tarArchiveOutputStream,
+            final @NotNull String name) throws IOException {
+
+        final TarArchiveEntry directoryEntry = new TarArchiveEntry(name);
+        directoryEntry.setMode(DIRECTORY_MODE);
+        tarArchiveOutputStream.putArchiveEntry(directoryEntry);
+        tarArchiveOutputStream.closeArchiveEntry();
+    }
+
+    private static void putFile(
+            final @NotNull TarArchiveOutputStream tarArchiveOutputStream,
+            final @NotNull String name,
+            final @NotNull ZipFile zip,
+            final @NotNull ZipEntry zipEntry) throws IOException {
+
+        final TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setMode(FILE_MODE);
+        try (final InputStream inputStream = zip.getInputStream(zipEntry)) {
+            if (zipEntry.getSize() >= 0) {
+                entry.setSize(zipEntry.getSize());
+                tarArchiveOutputStream.putArchiveEntry(entry);
+                IOUtils.copy(inputStream, tarArchiveOutputStream);
+            } else {
+                final byte[] content = IOUtils.toByteArray(inputStream);
+                entry.setSize(content.length);
+                tarArchiveOutputStream.putArchiveEntry(entry);
+                tarArchiveOutputStream.write(content);
+            }
+        }
+        tarArchiveOutputStream.closeArchiveEntry();
+    }
+
+    /**
+     * @return the parent directory of the tar entry name, ending with '/'
+     */
+    private static @NotNull String parent(final @NotNull String name) {
+        final int end = name.endsWith("/") ? name.length() - 1 : name.length();
+        return name.substring(0, name.lastIndexOf('/', end - 1) + 1);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Builds a HiveMQ image that already contains extensions, a config and licenses, so they do not have to be copied
+ * into every container that is started.
+ * <p>
+ * The tag of the image is a hash of the id of the base image and the content of all inputs, so an image is only
+ * built again if the base image or an input changed, and is kept after the JVM exits.
+ * <pre>{@code
+ * container.setImage(new HiveMQImageBuilder(DockerImageName.parse("hivemq/hivemq-ce").withTag("latest"))
+ *         .withExtension(hiveMQExtension)
+ *         .withHiveMQConfig(MountableFile.forClasspathResource("/config.xml"))
+ *         .build());
+ * }</pre>
+ *
+ * @since 2.0.0
+ */
+public class HiveMQImageBuilder {
+
+    private static final int MODE = 0777;
+
+    private final @NotNull DockerImageName baseImage;
+    private final @NotNull Map<String, Transferable> files = new LinkedHashMap<>();
+
+    /**
+     * Creates a builder for an image based on the given HiveMQ image.
+     *
+     * @param baseImage the HiveMQ image to build on
+     */
+    public HiveMQImageBuilder(final @NotNull DockerImageName baseImage) {
+        this.baseImage = baseImage;
+    }
+
+    /**
+     * Wraps the given class and all its subclasses into an extension
+     * and puts it into '/opt/hivemq/extensions/{extension-id}' inside the image.
+     *
+     * @param hiveMQExtension the {@link HiveMQExtension} of the extension
+     * @return self
+     */
+    public @NotNull HiveMQImageBuilder withExtension(final @NotNull HiveMQExtension hiveMQExtension) {
+        try {
+            final PackagedExtension extension = ExtensionPackager.packageExtension(hiveMQExtension, statistics -> {});
+            files.put("/opt/hivemq/extensions/" + hiveMQExtension.getId(), extension);
+        } catch (final Exception e) {
+            throw new ContainerLaunchException(e.getMessage() == null ? "" : e.getMessage(), e);
+        }
+        return this;
+    }
+
+    /**
+     * Puts the given extension folder into '/opt/hivemq/extensions/{directory-name}' inside the image.
+     * The directory-name is taken from the id defined in the hivemq-extension.xml.
+     *
+     * @param mountableExtension the extension folder on the host machine
+     * @return self
+     */
+    public @NotNull HiveMQImageBuilder withExtension(final @NotNull MountableFile mountableExtension) {
+        final File extensionDir = new File(mountableExtension.getResolvedPath());
+        if (!extensionDir.isDirectory()) {
+            throw new ContainerLaunchException("Extension '" + mountableExtension.getFilesystemPath() + "' does not exist or is not a directory.");
+        }
+        try {
+            final String extensionDirName = HiveMQTestContainerCore.getExtensionDirectoryName(extensionDir);
+            files.put("/opt/hivemq/extensions/" + extensionDirName, withMode(mountableExtension));
+        } catch (final Exception e) {
+            throw new ContainerLaunchException(e.getMessage() == null ? "" : e.getMessage(), e);
+        }
+        return this;
+    }
+
+    /**
+     * Overwrites the HiveMQ configuration in '/opt/hivemq/conf/' inside the image.
+     *
+     * @param mountableConfig the config file on the host machine
+     * @return self
+     */
+    public @NotNull HiveMQImageBuilder withHiveMQConfig(final @NotNull MountableFile mountableConfig) {
+        final File config = new File(mountableConfig.getResolvedPath());
+        if (!config.isFile()) {
+            throw new ContainerLaunchException("HiveMQ config file '" + mountableConfig.getFilesystemPath() + "' does not exist.");
+        }
+        files.put("/opt/hivemq/conf/config.xml", withMode(mountableConfig));
+        return this;
+    }
+
+    /**
+     * Puts the given license into '/opt/hivemq/license/' inside the image.
+     * It must end with '.lic' or '.elic'.
+     *
+     * @param mountableLicense the license file on the host machine
+     * @return self
+     */
+    public @NotNull HiveMQImageBuilder withLicense(final @NotNull MountableFile mountableLicense) {
+        final File licenseFile = new File(mountableLicense.getResolvedPath());
+        if (!licenseFile.isFile()) {
+            throw new ContainerLaunchException("License file '" + mountableLicense.getFilesystemPath() + "' does not exist.");
+        }
+        if (!licenseFile.getName().endsWith(".lic") && !licenseFile.getName().endsWith(".elic")) {
+            throw new ContainerLaunchException("License file '" + mountableLicense.getFilesystemPath() + "' does not end wit '.lic' or '.elic'.");
+        }
+        files.put("/opt/hivemq/license/" + licenseFile.getName(), withMode(mountableLicense));
+        return this;
+    }
+
+    /**
+     * @param baseImageId the id of the resolved base image
+     * @return the name of the image, its tag is a hash of the base image id and the content of all inputs
+     */
+    @NotNull String getImageName(final @NotNull String baseImageId) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(baseImageId, StandardCharsets.UTF_8);
+        files.forEach((containerPath, transferable) -> {
+            hasher.putString(containerPath, StandardCharsets.UTF_8);
+            hasher.putString(ContentKeys.of(transferable), StandardCharsets.UTF_8);
+        });
+        return DerivedImage.imageName(baseImage.getRepository(), hasher);
+    }
+
+    /**
+     * Creates the image, it is resolved when the container is started. The base image is pulled if it is missing and
+     * the image is only built if no image with the same base image id and inputs exists yet. The image is not deleted
+     * after the JVM exits, so it is reused as long as the base image and the inputs do not change.
+     *
+     * @return the name of the image, resolved when the container is started
+     */
+    public @NotNull Future<String> build() {
+        final Map<String, Transferable> files = new LinkedHashMap<>(this.files);
+        return new DerivedImage(baseImage) {
+            @Override
+            @NotNull String imageName(final @NotNull String baseImageId) {
+                return getImageName(baseImageId);
+            }
+
+            @Override
+            @NotNull ImageFromDockerfile build(
+                    final @NotNull ImageFromDockerfile image, final @NotNull String baseImageName) {
+
+                final Map<String, String> contextPaths = new LinkedHashMap<>();
+                int index = 0;
+                for (final Map.Entry<String, Transferable> file : files.entrySet()) {
+                    final String contextPath = "file-" + index++;
+                    contextPaths.put(contextPath, file.getKey());
+                    image.withFileFromTransferable(contextPath, file.getValue());
+                }
+                return image.withDockerfileFromBuilder(builder -> {
+                    builder.from(baseImageName);
+                    contextPaths.forEach(builder::copy);
+                });
+            }
+        };
+    }
+
+    private static @NotNull MountableFile withMode(final @NotNull MountableFile mountableFile) {
+        return MountableFile.forHostPath(mountableFile.getResolvedPath(), MODE);
+    }
+}
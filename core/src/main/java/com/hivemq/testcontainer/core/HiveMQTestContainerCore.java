@@ -15,35 +15,46 @@
  */
 package com.hivemq.testcontainer.core;
 
-import com.hivemq.extension.sdk.api.ExtensionMain;
-import javassist.ClassPool;
-import javassist.NotFoundException;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Bind;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.hivemq.testcontainer.core.internal.StateResetExtensionMain;
 import org.apache.commons.io.FileUtils;
-import org.jboss.shrinkwrap.api.ShrinkWrap;
-import org.jboss.shrinkwrap.api.exporter.ZipExporter;
-import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
+import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.ContainerLaunchException;
 import org.testcontainers.containers.GenericContainer;
-import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.containers.output.OutputFrame;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.lifecycle.Startable;
 import org.testcontainers.utility.DockerImageName;
 import org.testcontainers.utility.MountableFile;
+import org.testcontainers.utility.TestcontainersConfiguration;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.time.Duration;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,15 +67,6 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
 
     private final static @NotNull Logger logger = LoggerFactory.getLogger(HiveMQTestContainerCore.class);
 
-    private static final @NotNull String validPluginXML =
-            "<hivemq-extension>" + //
-                    "   <id>%s</id>" + //
-                    "   <name>%s</name>" + //
-                    "   <version>%s</version>" + //
-                    "   <priority>%s</priority>" +  //
-                    "   <start-priority>%s</start-priority>" +  //
-                    "</hivemq-extension>";
-
     private static final @NotNull String DEFAULT_HIVEMQ_IMAGE = "hivemq/hivemq-ce";
     private static final @NotNull String DEFAULT_HIVEMQ_TAG = "latest";
     public static final int DEBUGGING_PORT = 9000;
@@ -72,13 +74,33 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
     public static final int CONTROL_CENTER_PORT = 8080;
     @SuppressWarnings("OctalInteger")
     private static final int MODE = 0777;
+    private static final byte @NotNull [] DEBUGGING_LISTENING =
+            "Listening for transport dt_socket at address:".getBytes(StandardCharsets.UTF_8);
     private static final @NotNull Pattern EXTENSION_ID_PATTERN = Pattern.compile("<id>(.+?)</id>");
+    private static final @NotNull String STATE_RESET_EXTENSION_ID = "hivemq-testcontainer-state-reset";
+    private static final @NotNull String CONFIG_HASH_LABEL = "com.hivemq.testcontainer.config-hash";
 
-    private final @NotNull ConcurrentHashMap<String, CountDownLatch> containerOutputLatches = new ConcurrentHashMap<>();
     private volatile boolean silent = false;
+    private volatile boolean debugging = false;
+    private volatile int asyncLogBufferSize = 0;
+    private volatile @NotNull LogOverflowPolicy asyncLogOverflowPolicy = LogOverflowPolicy.DROP;
+    private volatile @Nullable AsyncLogSink asyncLogSink;
+    private final @NotNull LongAdder droppedLogLines = new LongAdder();
     private volatile boolean controlCenterEnabled = false;
+    private volatile boolean stateResetEnabled = false;
+    private volatile boolean batchedFileCopies = false;
+    private volatile boolean reuse = false;
+    private volatile boolean startupReportLogging = false;
+    private volatile @Nullable StartupReport startupReport;
 
     private final @NotNull MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy();
+    private final @NotNull ContainerOutputDispatcher outputDispatcher = new ContainerOutputDispatcher();
+    private final @NotNull LogSubscriptions logSubscriptions = new LogSubscriptions();
+    private final @NotNull StartupRecorder startupRecorder = new StartupRecorder();
+    private final @NotNull Map<String, ExtensionPackagingStatistics> packagingStatistics = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, Transferable> transferablesToCopy = new LinkedHashMap<>();
+    private final @NotNull List<Supplier<? extends Transferable>> extensionSuppliers = new ArrayList<>();
+    private final @NotNull List<CompletableFuture<? extends Transferable>> suppliedExtensions = new ArrayList<>();
 
     public HiveMQTestContainerCore() {
         this(DockerImageName.parse(DEFAULT_HIVEMQ_IMAGE).withTag(DEFAULT_HIVEMQ_TAG));
@@ -91,36 +113,193 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
         waitStrategy.withRegEx("(.*)Started HiveMQ in(.*)");
         waitingFor(waitStrategy);
 
-        withLogConsumer(outputFrame -> {
-            final String utf8String = outputFrame.getUtf8String();
-            if (utf8String.startsWith("Listening for transport dt_socket at address:")) {
-                System.out.println("Listening for transport dt_socket at address: " + getMappedPort(DEBUGGING_PORT));
-            } else if (!silent) {
-                System.out.print(utf8String);
+        // recorded before the wait strategy sees the line, so the report is complete when start() returns
+        outputDispatcher.addListener(startupRecorder);
+        outputDispatcher.addListener(waitStrategy);
+        outputDispatcher.addListener(frame -> {
+            if (silent || (debugging && frame.startsWith(DEBUGGING_LISTENING))) {
+                return;
             }
-        });
-        withLogConsumer((outputFrame) -> {
-            if (!containerOutputLatches.isEmpty()) {
-                containerOutputLatches.forEach((regEx, latch) -> {
-                    if (outputFrame.getUtf8String().matches("(?s)" + regEx)) {
-                        logger.debug("Container Output '{}' matched RegEx '{}'", outputFrame.getUtf8String(), regEx);
-                        latch.countDown();
-                    } else {
-                        logger.debug("Container Output '{}' did not match RegEx '{}'", outputFrame.getUtf8String(), regEx);
-                    }
-                });
+            final String utf8String = frame.getUtf8String();
+            final AsyncLogSink sink = asyncLogSink;
+            if (sink != null) {
+                sink.print(utf8String);
+            } else {
+                System.out.print(utf8String);
             }
         });
+        outputDispatcher.addListener(logSubscriptions);
+        withLogConsumer(outputDispatcher);
     }
 
     @Override
     public void start() {
-        super.start();
+        startupRecorder.begin();
+        try {
+            // stop() closes the sink also for a reused container, so it is created again before the early return
+            if (asyncLogBufferSize > 0 && asyncLogSink == null) {
+                asyncLogSink = new AsyncLogSink(asyncLogBufferSize, asyncLogOverflowPolicy, System.out, droppedLogLines).start();
+            }
+            if (getContainerId() != null && isReuseActive()) {
+                if (stateResetEnabled) {
+                    resetStateOnReuse();
+                }
+                startupRecorder.host(StartupReport.READY);
+                return;
+            }
+            for (final Supplier<? extends Transferable> extensionSupplier : extensionSuppliers) {
+                suppliedExtensions.add(CompletableFuture.supplyAsync(extensionSupplier, ContainerExecutors.suppliers()));
+            }
+            extensionSuppliers.clear();
+            super.start();
+        } finally {
+            final StartupReport report = startupRecorder.finish();
+            startupReport = report;
+            if (startupReportLogging) {
+                logger.info("{}", report);
+            }
+        }
         if (controlCenterEnabled) {
             logger.info("The HiveMQ Control Center is reachable under: http://localhost:{}", getMappedPort(CONTROL_CENTER_PORT));
         }
     }
 
+    /**
+     * Starts the container on a background thread.
+     * <p>
+     * This allows to overlap the startup of the container with other setup work of the test.
+     *
+     * @return a future that completes with this container when it is started
+     * @since 2.0.0
+     */
+    public @NotNull CompletableFuture<SELF> startAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            start();
+            return self();
+        }, ContainerExecutors.starter());
+    }
+
+    /**
+     * Starts all containers concurrently and waits until they are started.
+     * <p>
+     * Fails as soon as one of the containers fails to start, without waiting for the others. The containers that
+     * started anyway are stopped again.
+     *
+     * @param containers the configured containers to start
+     * @throws RuntimeException the exception of the first container that failed to start
+     * @since 2.0.0
+     */
+    public static void startAll(final @NotNull Startable... containers) {
+        try {
+            startAllAsync(containers).join();
+        } catch (final CompletionException e) {
+            final Throwable cause = ParallelStartup.unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ContainerLaunchException("Container failed to start", cause);
+        }
+    }
+
+    /**
+     * Starts all containers concurrently.
+     * <p>
+     * The returned future completes exceptionally as soon as one of the containers fails to start. The containers
+     * that started anyway are stopped again.
+     *
+     * @param containers the configured containers to start
+     * @return a future that completes when all containers are started
+     * @since 2.0.0
+     */
+    public static @NotNull CompletableFuture<Void> startAllAsync(final @NotNull Startable... containers) {
+        return ParallelStartup.startAll(containers);
+    }
+
+    @Override
+    protected void configure() {
+        super.configure();
+        startupRecorder.host(StartupReport.CONFIGURED);
+        // resolved here instead of right after configure() to time the image pull or build separately
+        getDockerImageName();
+        startupRecorder.host(StartupReport.IMAGE_RESOLVED);
+        if (isReuseActive()) {
+            // the supplied extensions are part of the configuration hash
+            joinSuppliedExtensions();
+            withLabel(CONFIG_HASH_LABEL, configHash());
+        }
+    }
+
+    @Override
+    protected void containerIsStarted(final @NotNull InspectContainerResponse containerInfo, final boolean reused) {
+        super.containerIsStarted(containerInfo, reused);
+        if (reused) {
+            logger.info("Reusing HiveMQ container '{}'.", containerInfo.getId());
+            if (stateResetEnabled) {
+                resetStateOnReuse();
+            }
+        }
+        startupRecorder.host(StartupReport.READY);
+    }
+
+    @Override
+    protected void containerIsStarting(final @NotNull InspectContainerResponse containerInfo, final boolean reused) {
+        super.containerIsStarting(containerInfo, reused);
+        startupRecorder.host(StartupReport.RUNNING);
+    }
+
+    @Override
+    protected void containerIsCreated(final @NotNull String containerId) {
+        super.containerIsCreated(containerId);
+        startupRecorder.host(StartupReport.CREATED);
+        joinSuppliedExtensions();
+        if (batchedFileCopies && transferablesToCopy.size() > 1) {
+            copyFileToContainer(new CompositeTransferable(transferablesToCopy), "/");
+        } else {
+            transferablesToCopy.forEach((containerPath, transferable) -> copyFileToContainer(transferable, containerPath));
+        }
+        startupRecorder.host(StartupReport.FILES_COPIED);
+    }
+
+    /**
+     * Waits for the extension suppliers that were started by {@link #start()} and adds their extensions.
+     */
+    private void joinSuppliedExtensions() {
+        if (suppliedExtensions.isEmpty()) {
+            return;
+        }
+        try {
+            for (final CompletableFuture<? extends Transferable> suppliedExtension : suppliedExtensions) {
+                final Transferable extension = suppliedExtension.join();
+                if (extension instanceof HiveMQExtensionZip) {
+                    withExtension((HiveMQExtensionZip) extension);
+                } else {
+                    withExtension((MountableFile) extension);
+                }
+            }
+        } catch (final CompletionException e) {
+            throw new ContainerLaunchException("Extension supplier failed", ParallelStartup.unwrap(e));
+        } finally {
+            suppliedExtensions.clear();
+        }
+        startupRecorder.host(StartupReport.EXTENSIONS_SUPPLIED);
+    }
+
+    /**
+     * Copies the given {@link Transferable} into the container when it is created. All files of the HiveMQ
+     * container are copied through here, so they can be batched.
+     *
+     * @see #withBatchedFileCopies()
+     */
+    private void withTransferableToContainer(
+            final @NotNull Transferable transferable,
+            final @NotNull String containerPath) {
+
+        transferablesToCopy.put(containerPath, transferable);
+    }
+
     /**
      * Adds a wait condition for the extension with this name.
      * <p>
@@ -157,6 +336,15 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
     public @NotNull SELF withDebugging() {
         addExposedPorts(DEBUGGING_PORT);
         withEnv("JAVA_OPTS", "-agentlib:jdwp=transport=dt_socket,address=0.0.0.0:" + DEBUGGING_PORT + ",server=y,suspend=y");
+        if (!debugging) {
+            debugging = true;
+            // prints the mapped debugging port instead of the port inside the container
+            outputDispatcher.addListener(frame -> {
+                if (frame.startsWith(DEBUGGING_LISTENING)) {
+                    System.out.println("Listening for transport dt_socket at address: " + getMappedPort(DEBUGGING_PORT));
+                }
+            });
+        }
         return self();
     }
 
@@ -184,9 +372,9 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
      */
     public @NotNull SELF withExtension(final @NotNull HiveMQExtension hiveMQExtension) {
         try {
-            final File extension = createExtension(hiveMQExtension);
-            final MountableFile mountableExtension = MountableFile.forHostPath(extension.getPath(), MODE);
-            withCopyFileToContainer(mountableExtension, "/opt/hivemq/extensions/" + hiveMQExtension.getId());
+            final PackagedExtension extension = ExtensionPackager.packageExtension(
+                    hiveMQExtension, statistics -> packagingStatistics.put(statistics.getExtensionId(), statistics));
+            withTransferableToContainer(extension, "/opt/hivemq/extensions/" + hiveMQExtension.getId());
         } catch (final Exception e) {
             throw new ContainerLaunchException(e.getMessage() == null ? "" : e.getMessage(), e);
         }
@@ -204,6 +392,84 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
      * @return self
      */
     public @NotNull SELF withExtension(final @NotNull MountableFile mountableExtension) {
+        return withExtension(mountableExtension, false);
+    }
+
+    /**
+     * Puts the extension folder of the supplier into '/opt/hivemq/extensions/{directory-name}' inside the container,
+     * like {@link #withExtension(MountableFile)}.
+     * <p>
+     * The supplier is called when the container is started, for example to package a maven or gradle extension.
+     * All suppliers run concurrently while the image is resolved and the container is created, so the slowest of
+     * these steps determines the startup time instead of their sum. The supplier is called only once, also if the
+     * container is started again.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param extensionSupplier the supplier of the extension folder on the host machine,
+     *                          for example a {@link MavenHiveMQExtensionSupplier}
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withExtension(final @NotNull Supplier<MountableFile> extensionSupplier) {
+        extensionSuppliers.add(extensionSupplier);
+        return self();
+    }
+
+    /**
+     * Puts the extension of the given distribution zip into '/opt/hivemq/extensions/{extension-id}' inside the
+     * container. The extension is streamed from the zip into the container, without extracting it on the host.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param extensionZip the distribution zip of the extension on the host machine
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withExtension(final @NotNull HiveMQExtensionZip extensionZip) {
+        final String containerPath = "/opt/hivemq/extensions/" + extensionZip.getExtensionId();
+        withTransferableToContainer(extensionZip, containerPath);
+        logger.info("Putting extension '{}' into '{}'", extensionZip.getExtensionId(), containerPath);
+        return self();
+    }
+
+    /**
+     * Puts the extension of the distribution zip of the supplier into '/opt/hivemq/extensions/{extension-id}' inside
+     * the container, like {@link #withExtension(HiveMQExtensionZip)}.
+     * <p>
+     * The supplier is called when the container is started, concurrently to other suppliers, like the suppliers of
+     * {@link #withExtension(Supplier)}.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param extensionZipSupplier the supplier of the distribution zip on the host machine,
+     *                             for example {@link MavenHiveMQExtensionSupplier#getZip()}
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withExtensionZip(final @NotNull Supplier<HiveMQExtensionZip> extensionZipSupplier) {
+        extensionSuppliers.add(extensionZipSupplier);
+        return self();
+    }
+
+    /**
+     * Puts the given extension folder into '/opt/hivemq/extensions/{directory-name}' inside the container.
+     * It must at least contain a valid hivemq-extension.xml and a valid extension.jar in order to be executed.
+     * The directory-name is taken from the id defined in the hivemq-extension.xml.
+     * <p>
+     * If readOnlyBindMount is true, the content of the extension folder is bind mounted read-only instead of copied,
+     * which saves copying large extensions on every start. The files must then be readable by the HiveMQ user of the
+     * image, as their file mode is not changed. The extension folder itself stays writable inside the container, so
+     * the extension can still be disabled and enabled.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param mountableExtension the extension folder on the host machine
+     * @param readOnlyBindMount  whether the content of the extension folder is bind mounted read-only instead of copied
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withExtension(final @NotNull MountableFile mountableExtension, final boolean readOnlyBindMount) {
         final File extensionDir = new File(mountableExtension.getResolvedPath());
         if (!extensionDir.exists()) {
             throw new ContainerLaunchException("Extension '" + mountableExtension.getFilesystemPath() + "' could not be mounted. It does not exist.");
@@ -214,88 +480,57 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
         try {
             final String extensionDirName = getExtensionDirectoryName(extensionDir);
             final String containerPath = "/opt/hivemq/extensions/" + extensionDirName;
-            withCopyFileToContainer(cloneWithFileMode(mountableExtension, MODE), containerPath);
-            logger.info("Putting extension '{}' into '{}'", extensionDirName, containerPath);
+            if (readOnlyBindMount) {
+                bindExtensionReadOnly(extensionDir, containerPath);
+                logger.info("Mounting extension '{}' read-only into '{}'", extensionDirName, containerPath);
+            } else {
+                withTransferableToContainer(cloneWithFileMode(mountableExtension, MODE), containerPath);
+                logger.info("Putting extension '{}' into '{}'", extensionDirName, containerPath);
+            }
         } catch (final Exception e) {
             throw new ContainerLaunchException(e.getMessage() == null ? "" : e.getMessage(), e);
         }
         return self();
     }
 
-    private @NotNull String getExtensionDirectoryName(final @NotNull File extensionDirectory) throws IOException {
-        final File file = new File(extensionDirectory, "hivemq-extension.xml");
-        final String xml = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
-        final Matcher matcher = EXTENSION_ID_PATTERN.matcher(xml);
-
-        if (!matcher.find()) {
-            throw new IllegalStateException("Could not parse extension id from '" + file.getAbsolutePath() + "'");
+    /**
+     * Binds every entry of the extension folder separately, so the extension folder is created inside the container
+     * and the DISABLED file can be created and removed. An existing DISABLED file is copied instead of bound.
+     */
+    private void bindExtensionReadOnly(final @NotNull File extensionDir, final @NotNull String containerPath) {
+        withTransferableToContainer(new DirectoryTransferable(MODE), containerPath);
+        final File[] entries = extensionDir.listFiles();
+        if (entries == null) {
+            throw new ContainerLaunchException("Extension '" + extensionDir.getAbsolutePath() + "' could not be listed.");
         }
-        return matcher.group(1);
-    }
-
-    private @NotNull File createExtension(final @NotNull HiveMQExtension hiveMQExtension)
-            throws Exception {
-
-        final File tempDir = Files.createTempDirectory("").toFile();
-
-        final File extensionDir = new File(tempDir, hiveMQExtension.getId());
-        FileUtils.writeStringToFile(new File(extensionDir, "hivemq-extension.xml"),
-                String.format(
-                        validPluginXML,
-                        hiveMQExtension.getId(),
-                        hiveMQExtension.getName(),
-                        hiveMQExtension.getVersion(),
-                        hiveMQExtension.getPriority(),
-                        hiveMQExtension.getStartPriority()),
-                Charset.defaultCharset());
-
-        if (hiveMQExtension.isDisabledOnStartup()) {
-            final File disabled = new File(extensionDir, "DISABLED");
-            final boolean newFile = disabled.createNewFile();
-            if (!newFile) {
-                throw new ContainerLaunchException("Could not create DISABLED file '" + disabled.getAbsolutePath() + "' on host machine.");
+        for (final File entry : entries) {
+            final String entryContainerPath = containerPath + "/" + entry.getName();
+            if ("DISABLED".equals(entry.getName())) {
+                withTransferableToContainer(MountableFile.forHostPath(entry.getAbsolutePath(), MODE), entryContainerPath);
+            } else {
+                addFileSystemBind(entry.getAbsolutePath(), entryContainerPath, BindMode.READ_ONLY);
             }
         }
+    }
 
-        final JavaArchive javaArchive =
-                ShrinkWrap.create(JavaArchive.class)
-                        .addAsServiceProviderAndClasses(ExtensionMain.class, hiveMQExtension.getMainClass());
-
-        putSubclassesIntoJar(hiveMQExtension.getId(), hiveMQExtension.getMainClass(), javaArchive);
-        for (final Class<?> additionalClass : hiveMQExtension.getAdditionalClasses()) {
-            javaArchive.addClass(additionalClass);
-            putSubclassesIntoJar(hiveMQExtension.getId(), additionalClass, javaArchive);
-        }
-
-        javaArchive.as(ZipExporter.class).exportTo(new File(extensionDir, "extension.jar"));
-
-        return extensionDir;
+    static @NotNull String getExtensionDirectoryName(final @NotNull File extensionDirectory) throws IOException {
+        final File file = new File(extensionDirectory, "hivemq-extension.xml");
+        final String xml = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+        return parseExtensionId(xml, file.getAbsolutePath());
     }
 
-    private void putSubclassesIntoJar(
-            final @NotNull String extensionId,
-            final @Nullable Class<?> clazz,
-            final @NotNull JavaArchive javaArchive) throws NotFoundException {
-
-        if (clazz != null) {
-            final Set<String> subClassNames =
-                    ClassPool.getDefault().get(clazz.getName()).getClassFile().getConstPool().getClassNames();
-            for (final String subClassName : subClassNames) {
-                final String className = subClassName.replaceAll("/", ".");
-
-                if (!className.startsWith("[L")) {
-                    logger.debug("Trying to package subclass '{}' into extension '{}'.", className, extensionId);
-                    javaArchive.addClass(className);
-                } else {
-                    logger.debug("Class '{}' will be ignored.", className);
-                }
-            }
+    static @NotNull String parseExtensionId(final @NotNull String xml, final @NotNull String location) {
+        final Matcher matcher = EXTENSION_ID_PATTERN.matcher(xml);
+
+        if (!matcher.find()) {
+            throw new IllegalStateException("Could not parse extension id from '" + location + "'");
         }
+        return matcher.group(1);
     }
 
     /**
      * Removes the specified prepackaged extension folders from '/opt/hivemq/extensions' before the container is built.
-     * Note: this creates a custom docker image.
+     * Note: this creates a custom docker image, which is kept and reused as long as the base image does not change.
      * <p>
      * Must be called before the container is started.
      *
@@ -303,31 +538,20 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
      * @return self
      */
     public @NotNull SELF withoutPrepackagedExtensions(final @NotNull String... extensionIds) {
-        final String dockerImageName = getDockerImageName();
-        setImage(new ImageFromDockerfile(dockerImageName + "-custom")
-                .withDockerfileFromBuilder(builder -> {
-                    builder.from(dockerImageName);
-                    for (final String extensionId : extensionIds) {
-                        builder.run("rm", "-rf", "/opt/hivemq/extensions/" + extensionId);
-                    }
-                }));
+        setImage(new WithoutPrepackagedExtensionsImage(getDockerImageName(), Arrays.asList(extensionIds)));
         return self();
     }
 
     /**
      * Removes all prepackaged extension folders from '/opt/hivemq/extensions' before the container is built.
-     * Note: this creates a custom docker image.
+     * Note: this creates a custom docker image, which is kept and reused as long as the base image does not change.
      * <p>
      * Must be called before the container is started.
      *
      * @return self
      */
     public @NotNull SELF withoutPrepackagedExtensions() {
-        final String dockerImageName = getDockerImageName();
-        setImage(new ImageFromDockerfile(dockerImageName + "-custom")
-                .withDockerfileFromBuilder(builder ->
-                        builder.from(dockerImageName)
-                                .run("rm", "-rf", "/opt/hivemq/extensions/")));
+        setImage(new WithoutPrepackagedExtensionsImage(getDockerImageName(), null));
         return self();
     }
 
@@ -349,7 +573,7 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
             throw new ContainerLaunchException("License file '" + mountableLicense.getFilesystemPath() + "' does not end wit '.lic' or '.elic'.");
         }
         final String containerPath = "/opt/hivemq/license/" + licenseFile.getName();
-        withCopyFileToContainer(cloneWithFileMode(mountableLicense, MODE), containerPath);
+        withTransferableToContainer(cloneWithFileMode(mountableLicense, MODE), containerPath);
         logger.info("Putting license '{}' into '{}'.", licenseFile.getAbsolutePath(), containerPath);
         return self();
     }
@@ -363,13 +587,35 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
      * @return self
      */
     public @NotNull SELF withHiveMQConfig(final @NotNull MountableFile mountableConfig) {
+        return withHiveMQConfig(mountableConfig, false);
+    }
+
+    /**
+     * Overwrites the HiveMQ configuration in '/opt/hivemq/conf/' inside the container.
+     * <p>
+     * If readOnlyBindMount is true, the config file is bind mounted read-only instead of copied. It must then be
+     * readable by the HiveMQ user of the image, as its file mode is not changed.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param mountableConfig   the config file on the host machine
+     * @param readOnlyBindMount whether the config file is bind mounted read-only instead of copied
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withHiveMQConfig(final @NotNull MountableFile mountableConfig, final boolean readOnlyBindMount) {
         final File config = new File(mountableConfig.getResolvedPath());
         if (!config.exists()) {
             throw new ContainerLaunchException("HiveMQ config file '" + mountableConfig.getFilesystemPath() + "' does not exist.");
         }
         final String containerPath = "/opt/hivemq/conf/config.xml";
-        withCopyFileToContainer(cloneWithFileMode(mountableConfig, MODE), containerPath);
-        logger.info("Putting '{}' into '{}'.", config.getAbsolutePath(), containerPath);
+        if (readOnlyBindMount) {
+            addFileSystemBind(config.getAbsolutePath(), containerPath, BindMode.READ_ONLY);
+            logger.info("Mounting '{}' read-only into '{}'.", config.getAbsolutePath(), containerPath);
+        } else {
+            withTransferableToContainer(cloneWithFileMode(mountableConfig, MODE), containerPath);
+            logger.info("Putting '{}' into '{}'.", config.getAbsolutePath(), containerPath);
+        }
         return self();
     }
 
@@ -440,11 +686,30 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
             throw new ContainerLaunchException("File '" + mountableFile.getFilesystemPath() + "‘ does not exist.");
         }
         final String containerPath = "/opt/hivemq" + PathUtil.preparePath(pathInHomeFolder) + file.getName();
-        withCopyFileToContainer(cloneWithFileMode(mountableFile, MODE), containerPath);
+        withTransferableToContainer(cloneWithFileMode(mountableFile, MODE), containerPath);
         logger.info("Putting file '{}' into container path '{}'.", file.getAbsolutePath(), containerPath);
         return self();
     }
 
+    /**
+     * Waits for container output that matches the given pattern without blocking the calling thread.
+     * The returned future completes with the first {@link OutputFrame} consumed after this call in which the pattern
+     * is found, or exceptionally with a {@link TimeoutException} if no output matched within the timeout.
+     * <p>
+     * Any number of awaits can be pending at the same time. An await is removed as soon as its future is completed,
+     * which includes cancelling the future.
+     * <p>
+     * The future is not completed on the thread consuming the container output, so callbacks of the future may block.
+     *
+     * @param pattern the pattern to find in the container output
+     * @param timeout the timeout
+     * @return a future that completes with the matching {@link OutputFrame}
+     * @since 2.0.0
+     */
+    public @NotNull CompletableFuture<OutputFrame> awaitLog(final @NotNull Pattern pattern, final @NotNull Duration timeout) {
+        return logSubscriptions.subscribe(pattern, timeout);
+    }
+
     /**
      * Disables the extension with the given name and extension directory name.
      * This method blocks until the HiveMQ log for successful disabling is consumed or it times out after {timeOut}.
@@ -464,25 +729,24 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
             final @NotNull Duration timeout) throws TimeoutException {
 
         final String regEX = "(.*)Extension \"" + extensionName + "\" version (.*) stopped successfully(.*)";
+        final String containerPath = "/opt/hivemq/extensions" + PathUtil.preparePath(extensionDirectory) + "DISABLED";
+        final CompletableFuture<OutputFrame> stopped = awaitLog(Pattern.compile(regEX), timeout);
         try {
-            final String containerPath = "/opt/hivemq/extensions" + PathUtil.preparePath(extensionDirectory) + "DISABLED";
-
-            final CountDownLatch latch = new CountDownLatch(1);
-            containerOutputLatches.put(regEX, latch);
-
             execInContainer("touch", containerPath);
             logger.info("Putting DISABLED file into container path '{}'", containerPath);
 
-            final boolean await = latch.await(timeout.getSeconds(), TimeUnit.SECONDS);
-            if (!await) {
+            stopped.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
                 throw new TimeoutException("Extension disabling timed out after '" + timeout.getSeconds() + "' seconds. " +
                         "Maybe you are using a HiveMQ Community Edition image, " +
                         "which does not support disabling of extensions");
             }
+            throw new RuntimeException(e.getCause());
         } catch (final InterruptedException | IOException e) {
             throw new RuntimeException(e);
         } finally {
-            containerOutputLatches.remove(regEX);
+            stopped.cancel(false);
         }
     }
 
@@ -556,25 +820,24 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
             final @NotNull Duration timeout) throws TimeoutException {
 
         final String regEX = "(.*)Extension \"" + extensionName + "\" version (.*) started successfully(.*)";
+        final String containerPath = "/opt/hivemq/extensions" + PathUtil.preparePath(extensionDirectory) + "DISABLED";
+        final CompletableFuture<OutputFrame> started = awaitLog(Pattern.compile(regEX), timeout);
         try {
-            final String containerPath = "/opt/hivemq/extensions" + PathUtil.preparePath(extensionDirectory) + "DISABLED";
-
-            final CountDownLatch latch = new CountDownLatch(1);
-            containerOutputLatches.put(regEX, latch);
-
             execInContainer("rm", "-rf", containerPath);
             logger.info("Removing DISABLED file in container path '{}'", containerPath);
 
-            final boolean await = latch.await(timeout.getSeconds(), TimeUnit.SECONDS);
-            if (!await) {
+            started.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
                 throw new TimeoutException("Extension enabling timed out after '" + timeout.getSeconds() + "' seconds. " +
                         "Maybe you are using a HiveMQ Community Edition image, " +
                         "which does not support disabling of extensions");
             }
+            throw new RuntimeException(e.getCause());
         } catch (final InterruptedException | IOException e) {
             throw new RuntimeException(e);
         } finally {
-            containerOutputLatches.remove(regEX);
+            started.cancel(false);
         }
     }
 
@@ -629,6 +892,89 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
         enableExtension(hiveMQExtension, Duration.ofSeconds(60));
     }
 
+    /**
+     * Enables {@link #resetState()} by putting a small control extension into the container.
+     * The extension is built from the classpath, so this requires com.hivemq:hivemq-extension-sdk on the test
+     * classpath.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @return self
+     * @throws ContainerLaunchException if the HiveMQ extension SDK is not on the classpath
+     * @since 2.0.0
+     */
+    public @NotNull SELF withStateReset() {
+        if (!stateResetEnabled) {
+            if (!isExtensionSdkPresent()) {
+                throw new ContainerLaunchException("withStateReset() requires com.hivemq:hivemq-extension-sdk on the test classpath.");
+            }
+            final HiveMQExtension stateResetExtension = HiveMQExtension.builder()
+                    .id(STATE_RESET_EXTENSION_ID)
+                    .name("HiveMQ Testcontainer State Reset")
+                    .version("1.0.0")
+                    .mainClass(StateResetExtensionMain.class)
+                    .build();
+            withExtension(stateResetExtension);
+            waitForExtension(stateResetExtension);
+            stateResetEnabled = true;
+        }
+        return self();
+    }
+
+    /**
+     * Resets the state of the broker without restarting it, so a container can be shared by multiple tests.
+     * All sessions are invalidated, which disconnects connected clients and removes their subscriptions
+     * and queued messages, and all retained messages are cleared.
+     * This method blocks until the reset is completed or it times out after {timeOut}.
+     * <p>
+     * This can only be called once the container is started with {@link #withStateReset()}.
+     *
+     * @param timeout the timeout
+     * @throws TimeoutException if the state was not reset within the configured timeout
+     * @since 2.0.0
+     */
+    public void resetState(final @NotNull Duration timeout) throws TimeoutException {
+        if (!stateResetEnabled) {
+            throw new IllegalStateException("State reset is not enabled, call withStateReset() before the container is started.");
+        }
+        final String token = UUID.randomUUID().toString();
+        final String containerPath = "/opt/hivemq/extensions/" + STATE_RESET_EXTENSION_ID + "/" +
+                StateResetExtensionMain.RESET_FILE_PREFIX + token;
+        final CompletableFuture<OutputFrame> reset = awaitLog(
+                Pattern.compile(Pattern.quote(StateResetExtensionMain.RESET_LOG_PREFIX + "'" + token + "'")), timeout);
+        try {
+            execInContainer("touch", containerPath);
+            logger.debug("Requesting state reset with file '{}'", containerPath);
+
+            final String output = reset.get().getUtf8String();
+            if (!output.contains("' completed")) {
+                throw new IllegalStateException("State reset failed: " + output.trim());
+            }
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new TimeoutException("State reset timed out after '" + timeout.getSeconds() + "' seconds.");
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (final InterruptedException | IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            reset.cancel(false);
+        }
+    }
+
+    /**
+     * Resets the state of the broker without restarting it, so a container can be shared by multiple tests.
+     * This method blocks until the reset is completed or it times out after 60 seconds.
+     * <p>
+     * This can only be called once the container is started with {@link #withStateReset()}.
+     *
+     * @throws TimeoutException if the state was not reset within 60 seconds
+     * @since 2.0.0
+     */
+    public void resetState() throws TimeoutException {
+        resetState(Duration.ofSeconds(60));
+    }
+
     /**
      * Determines whether the stdout of the container is printed to System.out.
      *
@@ -640,6 +986,86 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
         return self();
     }
 
+    /**
+     * Echoes the stdout of the container asynchronously, so consuming the container output is never slowed down
+     * by a slow System.out.
+     * The output is buffered in a bounded buffer and printed in batches by a dedicated thread.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param bufferSize     the maximum amount of buffered output frames
+     * @param overflowPolicy what happens to output frames when the buffer is full
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withAsyncLogOutput(final int bufferSize, final @NotNull LogOverflowPolicy overflowPolicy) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must be greater than 0");
+        }
+        this.asyncLogBufferSize = bufferSize;
+        this.asyncLogOverflowPolicy = overflowPolicy;
+        return self();
+    }
+
+    /**
+     * Get the amount of output frames that were dropped by the asynchronous log output,
+     * because its buffer was full.
+     *
+     * @return the amount of dropped output frames
+     * @see #withAsyncLogOutput(int, LogOverflowPolicy)
+     * @since 2.0.0
+     */
+    public long getDroppedLogLines() {
+        return droppedLogLines.sum();
+    }
+
+    /**
+     * Get statistics about the packaging of the extensions that were added with
+     * {@link #withExtension(HiveMQExtension)}, keyed by the extension id.
+     *
+     * @return the packaging statistics of each extension
+     * @since 2.0.0
+     */
+    public @NotNull Map<String, ExtensionPackagingStatistics> getPackagingStatistics() {
+        return Collections.unmodifiableMap(packagingStatistics);
+    }
+
+    /**
+     * Get the timings of the phases of the last start of the container, on the host and inside HiveMQ.
+     *
+     * @return the report of the last start or null if the container was not started yet
+     * @since 2.0.0
+     */
+    public @Nullable StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * Logs the {@link StartupReport} after every start of the container, also if the start failed.
+     *
+     * @return self
+     * @see #getStartupReport()
+     * @since 2.0.0
+     */
+    public @NotNull SELF withStartupReportLogging() {
+        startupReportLogging = true;
+        return self();
+    }
+
+    /**
+     * Copies all extensions, the license, the config and other files into the container as a single tar archive
+     * with one request, instead of one request per file.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull SELF withBatchedFileCopies() {
+        batchedFileCopies = true;
+        return self();
+    }
+
     /**
      * Enables connection to the HiveMQ Control Center on host port 8080.
      * Note: the control center is a HiveMQ 4 Enterprise feature.
@@ -667,8 +1093,84 @@ public class HiveMQTestContainerCore<SELF extends HiveMQTestContainerCore<SELF>>
 
     @Override
     public void stop() {
-        waitStrategy.reset();
-        super.stop();
+        if (!isReuseActive()) {
+            waitStrategy.reset();
+            super.stop();
+        }
+        final AsyncLogSink sink = asyncLogSink;
+        if (sink != null) {
+            asyncLogSink = null;
+            sink.close();
+        }
+        HostWorkspace.scheduleEviction();
+    }
+
+    /**
+     * Marks the container as reusable across test runs, see {@link GenericContainer#withReuse(boolean)}.
+     * A running container is reused if its image, environment, exposed ports, extensions and files are the same.
+     * <p>
+     * A reusable container is not stopped by {@link #stop()} and keeps running after the tests, it has to be removed
+     * manually.
+     * <p>
+     * The state of a reused container is only reset if {@link #withStateReset()} is called as well, otherwise clients,
+     * subscriptions and retained messages of previous runs are still present.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param reusable whether the container is reusable
+     * @return self
+     * @since 2.0.0
+     */
+    @Override
+    public @NotNull SELF withReuse(final boolean reusable) {
+        super.withReuse(reusable);
+        reuse = reusable;
+        return self();
+    }
+
+    private boolean isReuseActive() {
+        return reuse && TestcontainersConfiguration.getInstance().environmentSupportsReuse();
+    }
+
+    private static boolean isExtensionSdkPresent() {
+        try {
+            Class.forName("com.hivemq.extension.sdk.api.ExtensionMain", false,
+                    HiveMQTestContainerCore.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private void resetStateOnReuse() {
+        try {
+            resetState();
+        } catch (final TimeoutException e) {
+            throw new ContainerLaunchException("Could not reset the state of the reused container.", e);
+        }
+    }
+
+    /**
+     * Hashes everything that makes up the configuration of the container, including the content of all files that
+     * are copied or bound into it, which Testcontainers does not hash for reuse.
+     */
+    private @NotNull String configHash() {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(getDockerImageName(), StandardCharsets.UTF_8);
+        new TreeMap<>(getEnvMap()).forEach((key, value) ->
+                hasher.putString(key + "=" + value + "\n", StandardCharsets.UTF_8));
+        for (final Integer exposedPort : getExposedPorts()) {
+            hasher.putInt(exposedPort);
+        }
+        transferablesToCopy.forEach((containerPath, transferable) -> {
+            hasher.putString(containerPath, StandardCharsets.UTF_8);
+            hasher.putString(ContentKeys.of(transferable), StandardCharsets.UTF_8);
+        });
+        for (final Bind bind : getBinds()) {
+            hasher.putString(bind.getVolume().getPath(), StandardCharsets.UTF_8);
+            hasher.putString(ContentKeys.of(new File(bind.getPath())), StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
     }
 
     private @NotNull MountableFile cloneWithFileMode(final @NotNull MountableFile mountableFile, final int mode) {
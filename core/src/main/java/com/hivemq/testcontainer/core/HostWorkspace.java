@@ -0,0 +1,437 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns all directories the HiveMQ Testcontainer creates on the host machine.
+ * <p>
+ * Temporary directories are created in a directory of the current JVM and deleted when the JVM exits. Directories
+ * of JVMs that exited without cleaning up are deleted the next time the workspace is used.
+ * <p>
+ * Cached directories are reused by a content key, also across JVMs. When the cache exceeds its size limit,
+ * the least recently used directories are evicted. The limit in bytes can be set with the system property
+ * {@value #MAX_CACHE_SIZE_PROPERTY}. The size of a cached directory is recorded next to it when it is cached, so
+ * eviction does not walk the cache. Directories that a running JVM got from the cache are marked as in use in its
+ * session directory and are not evicted until that JVM exits.
+ * <p>
+ * Index files are small files that are kept across JVMs to make cache lookups fast. They are never evicted.
+ *
+ * @since 2.0.0
+ */
+class HostWorkspace {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(HostWorkspace.class);
+
+    static final @NotNull String MAX_CACHE_SIZE_PROPERTY = "hivemq.testcontainer.workspace.maxCacheSize";
+    private static final long DEFAULT_MAX_CACHE_SIZE = 2L * 1024 * 1024 * 1024;
+    private static final @NotNull String LOCK_FILE = ".lock";
+    private static final @NotNull String IN_USE = "in-use";
+    private static final @NotNull String SIZE_FILE_SUFFIX = ".size";
+    private static final long ABANDONED_SESSION_MIN_AGE = 60_000;
+    private static final long RECENTLY_USED_GRACE_PERIOD = 60_000;
+    private static final long EVICTION_INTERVAL = 60_000;
+
+    private static final @NotNull File ROOT = new File(System.getProperty("java.io.tmpdir"), "hivemq-testcontainer");
+    private static final @NotNull String CACHE_DIRECTORY = "cache";
+    private static final @NotNull String SESSIONS_DIRECTORY = "sessions";
+    private static final @NotNull File CACHE = new File(ROOT, CACHE_DIRECTORY);
+    private static final @NotNull File SESSIONS = new File(ROOT, SESSIONS_DIRECTORY);
+    private static final @NotNull File INDEXES = new File(ROOT, "indexes");
+
+    private static final @NotNull Set<File> temporaryDirectories = ConcurrentHashMap.newKeySet();
+    private static @Nullable File session;
+    private static @Nullable FileLock sessionLock;
+    private static final @NotNull AtomicLong nextEviction = new AtomicLong();
+
+    /**
+     * Writes the content of a directory.
+     */
+    interface DirectoryWriter {
+
+        void write(@NotNull File directory) throws IOException;
+    }
+
+    private HostWorkspace() {
+    }
+
+    /**
+     * Creates a new directory that is deleted when the JVM exits or when it is {@link #delete(File) deleted}.
+     *
+     * @param prefix the prefix of the directory name
+     * @return the directory
+     * @throws IOException if the directory could not be created
+     */
+    static @NotNull File temporaryDirectory(final @NotNull String prefix) throws IOException {
+        final File directory = Files.createTempDirectory(session().toPath(), prefix).toFile();
+        temporaryDirectories.add(directory);
+        return directory;
+    }
+
+    /**
+     * Deletes a temporary directory before the JVM exits.
+     *
+     * @param directory the directory to delete
+     */
+    static void delete(final @NotNull File directory) {
+        temporaryDirectories.remove(directory);
+        FileUtils.deleteQuietly(directory);
+    }
+
+    /**
+     * Gets a cached directory, marks it as recently used and as in use by the current JVM.
+     *
+     * @param namespace the namespace of the key, for example the kind of content
+     * @param key       the content key
+     * @return the cached directory or null if it is not cached
+     */
+    static @Nullable File getCached(final @NotNull String namespace, final @NotNull String key) {
+        final File directory = new File(new File(CACHE, namespace), key);
+        if (!directory.isDirectory()) {
+            return null;
+        }
+        // marked before it is checked again, so a concurrent eviction either sees the mark or the directory is gone
+        markInUse(namespace, key);
+        if (!directory.setLastModified(System.currentTimeMillis())) {
+            if (!directory.isDirectory()) {
+                return null;
+            }
+            logger.debug("Could not mark cached directory '{}' as used.", directory);
+        }
+        return directory;
+    }
+
+    /**
+     * Gets a cached directory or writes and caches it if it is not cached yet.
+     * <p>
+     * The content is written into a temporary directory first that is then moved into the cache atomically, so no
+     * JVM ever sees partially written content. If the content can not be cached, the temporary directory is returned.
+     *
+     * @param namespace the namespace of the key, for example the kind of content
+     * @param key       the content key
+     * @param writer    writes the content if it is not cached
+     * @return the cached directory
+     * @throws IOException if the content could not be written
+     */
+    static @NotNull File cached(
+            final @NotNull String namespace,
+            final @NotNull String key,
+            final @NotNull DirectoryWriter writer) throws IOException {
+
+        final File cached = getCached(namespace, key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final File directory = new File(new File(CACHE, namespace), key);
+        final File tempDirectory = temporaryDirectory(".");
+        try {
+            writer.write(tempDirectory);
+        } catch (final IOException | RuntimeException e) {
+            delete(tempDirectory);
+            throw e;
+        }
+        try {
+            FileUtils.forceMkdir(directory.getParentFile());
+            markInUse(namespace, key);
+            writeSize(directory, FileUtils.sizeOfDirectory(tempDirectory));
+            Files.move(tempDirectory.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            temporaryDirectories.remove(tempDirectory);
+        } catch (final IOException e) {
+            if (directory.isDirectory()) {
+                delete(tempDirectory);
+                return directory;
+            }
+            logger.debug("Could not cache '{}' in '{}'.", key, directory, e);
+            return tempDirectory;
+        }
+        scheduleEviction();
+        return directory;
+    }
+
+    /**
+     * Gets the location of an index file that is kept across JVMs. The file might not exist yet.
+     *
+     * @param namespace the namespace of the key, for example the kind of index
+     * @param key       the key of the index
+     * @return the index file
+     * @throws IOException if the directory of the index file could not be created
+     */
+    static @NotNull File indexFile(final @NotNull String namespace, final @NotNull String key) throws IOException {
+        final File directory = new File(INDEXES, namespace);
+        FileUtils.forceMkdir(directory);
+        return new File(directory, key);
+    }
+
+    /**
+     * Evicts the cache in the background, at most once per {@value #EVICTION_INTERVAL} milliseconds.
+     */
+    static void scheduleEviction() {
+        final long now = System.currentTimeMillis();
+        final long next = nextEviction.get();
+        if (now >= next && nextEviction.compareAndSet(next, now + EVICTION_INTERVAL)) {
+            ContainerExecutors.io().execute(HostWorkspace::evict);
+        }
+    }
+
+    /**
+     * Evicts the least recently used cached directories until the cache fits its size limit.
+     * Directories that are in use by a running JVM or were used recently are never evicted.
+     */
+    static void evict() {
+        evict(ROOT);
+    }
+
+    /**
+     * Evicts the cache of the workspace in the given root directory, see {@link #evict()}.
+     *
+     * @param root the root directory of the workspace
+     */
+    static void evict(final @NotNull File root) {
+        final long maxSize = Long.getLong(MAX_CACHE_SIZE_PROPERTY, DEFAULT_MAX_CACHE_SIZE);
+        final File cache = new File(root, CACHE_DIRECTORY);
+        final File[] namespaces = cache.listFiles(File::isDirectory);
+        if (namespaces == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<CacheEntry> entries = new ArrayList<>();
+        long size = 0;
+        for (final File namespace : namespaces) {
+            final File[] namespaceEntries = namespace.listFiles(File::isDirectory);
+            if (namespaceEntries != null) {
+                for (final File directory : namespaceEntries) {
+                    final CacheEntry entry = new CacheEntry(directory, directory.lastModified(), recordedSize(directory));
+                    entries.add(entry);
+                    size += entry.size;
+                }
+            }
+            deleteOrphanedSizeFiles(namespace, now);
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+
+        final Set<File> inUse = inUseDirectories(new File(root, SESSIONS_DIRECTORY), cache);
+        for (int i = 0; i < entries.size() && size > maxSize; i++) {
+            final CacheEntry entry = entries.get(i);
+            if (inUse.contains(entry.directory) ||
+                    entry.directory.lastModified() > now - RECENTLY_USED_GRACE_PERIOD) {
+                continue;
+            }
+            logger.debug("Evicting '{}' from the HiveMQ Testcontainer cache.", entry.directory);
+            FileUtils.deleteQuietly(entry.directory);
+            FileUtils.deleteQuietly(sizeFile(entry.directory));
+            size -= entry.size;
+        }
+    }
+
+    private static @NotNull File sizeFile(final @NotNull File directory) {
+        return new File(directory.getParentFile(), directory.getName() + SIZE_FILE_SUFFIX);
+    }
+
+    private static void writeSize(final @NotNull File directory, final long size) throws IOException {
+        Files.write(sizeFile(directory).toPath(), Long.toString(size).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the size that was recorded when the directory was cached. The size of directories cached without a
+     * recorded size is computed once and recorded.
+     */
+    private static long recordedSize(final @NotNull File directory) {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(sizeFile(directory).toPath()), StandardCharsets.UTF_8));
+        } catch (final IOException | NumberFormatException e) {
+            try {
+                final long size = FileUtils.sizeOfDirectory(directory);
+                writeSize(directory, size);
+                return size;
+            } catch (final IOException | IllegalArgumentException e2) {
+                // deleted concurrently
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Deletes the size files of directories that were deleted without them. New size files are kept, because their
+     * directory might just be moved into the cache.
+     */
+    private static void deleteOrphanedSizeFiles(final @NotNull File namespace, final long now) {
+        final File[] sizeFiles = namespace.listFiles((dir, name) -> name.endsWith(SIZE_FILE_SUFFIX));
+        if (sizeFiles == null) {
+            return;
+        }
+        for (final File sizeFile : sizeFiles) {
+            final String name = sizeFile.getName();
+            final File directory = new File(namespace, name.substring(0, name.length() - SIZE_FILE_SUFFIX.length()));
+            if (!directory.exists() && sizeFile.lastModified() < now - RECENTLY_USED_GRACE_PERIOD) {
+                FileUtils.deleteQuietly(sizeFile);
+            }
+        }
+    }
+
+    private static void markInUse(final @NotNull String namespace, final @NotNull String key) {
+        try {
+            final File namespaceDirectory = new File(new File(session(), IN_USE), namespace);
+            FileUtils.forceMkdir(namespaceDirectory);
+            FileUtils.touch(new File(namespaceDirectory, key));
+        } catch (final IOException e) {
+            logger.debug("Could not mark cached directory '{}/{}' as in use.", namespace, key, e);
+        }
+    }
+
+    /**
+     * Collects the cached directories that are marked as in use in the session directories. The session directories
+     * of JVMs that exited are deleted first.
+     */
+    private static @NotNull Set<File> inUseDirectories(final @NotNull File sessionsDirectory, final @NotNull File cache) {
+        final Set<File> inUse = new HashSet<>();
+        synchronized (HostWorkspace.class) {
+            deleteAbandonedSessions(sessionsDirectory);
+        }
+        final File[] sessions = sessionsDirectory.listFiles(File::isDirectory);
+        if (sessions == null) {
+            return inUse;
+        }
+        for (final File session : sessions) {
+            final File[] namespaces = new File(session, IN_USE).listFiles(File::isDirectory);
+            if (namespaces == null) {
+                continue;
+            }
+            for (final File namespace : namespaces) {
+                final String[] keys = namespace.list();
+                if (keys != null) {
+                    for (final String key : keys) {
+                        inUse.add(new File(new File(cache, namespace.getName()), key));
+                    }
+                }
+            }
+        }
+        return inUse;
+    }
+
+    private static synchronized @NotNull File session() throws IOException {
+        if (session != null) {
+            return session;
+        }
+        FileUtils.forceMkdir(SESSIONS);
+        deleteAbandonedSessions(SESSIONS);
+
+        final File newSession = new File(SESSIONS, UUID.randomUUID().toString());
+        FileUtils.forceMkdir(newSession);
+        @SuppressWarnings("resource") final FileChannel channel =
+                new RandomAccessFile(new File(newSession, LOCK_FILE), "rw").getChannel();
+        sessionLock = channel.lock();
+        session = newSession;
+        Runtime.getRuntime().addShutdownHook(new Thread(HostWorkspace::deleteSession, "hivemq-testcontainer-cleanup"));
+        return newSession;
+    }
+
+    private static void deleteSession() {
+        for (final File directory : temporaryDirectories) {
+            FileUtils.deleteQuietly(directory);
+        }
+        temporaryDirectories.clear();
+        final FileLock lock = sessionLock;
+        if (lock != null) {
+            try {
+                lock.release();
+                lock.channel().close();
+            } catch (final IOException e) {
+                logger.debug("Could not release the lock of the HiveMQ Testcontainer session '{}'.", session, e);
+            }
+        }
+        if (session != null) {
+            FileUtils.deleteQuietly(session);
+        }
+    }
+
+    /**
+     * Deletes the session directories of JVMs that exited without deleting them, recognized by their lock file not
+     * being locked anymore, or by not having a lock file long after they were created.
+     */
+    private static void deleteAbandonedSessions(final @NotNull File sessionsDirectory) {
+        final File[] sessions = sessionsDirectory.listFiles(File::isDirectory);
+        if (sessions == null) {
+            return;
+        }
+        final long minLastModified = System.currentTimeMillis() - ABANDONED_SESSION_MIN_AGE;
+        for (final File abandoned : sessions) {
+            if (abandoned.equals(session)) {
+                continue;
+            }
+            final File lockFile = new File(abandoned, LOCK_FILE);
+            if (!lockFile.exists()) {
+                // a new session without a lock file might still be starting, an old one died before locking it
+                if (abandoned.lastModified() < minLastModified) {
+                    FileUtils.deleteQuietly(abandoned);
+                }
+                continue;
+            }
+            if (lockFile.lastModified() > minLastModified) {
+                continue;
+            }
+            try (final FileChannel channel = new RandomAccessFile(lockFile, "rw").getChannel()) {
+                final FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    lock.release();
+                    channel.close();
+                    FileUtils.deleteQuietly(abandoned);
+                }
+            } catch (final IOException | OverlappingFileLockException e) {
+                logger.debug("Could not check the HiveMQ Testcontainer session '{}'.", abandoned, e);
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final @NotNull File directory;
+        private final long lastModified;
+        private final long size;
+
+        private CacheEntry(final @NotNull File directory, final long lastModified, final long size) {
+            this.directory = directory;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+}
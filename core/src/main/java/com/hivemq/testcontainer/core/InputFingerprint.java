@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Computes a content hash over the input files of a build, for example to skip the build if nothing changed.
+ * <p>
+ * The content hash of every file is remembered in a persisted index together with its size and modification time.
+ * Files whose size and modification time did not change are not read again, so the hash of an unchanged project is
+ * computed with a single directory walk.
+ *
+ * @since 2.0.0
+ */
+class InputFingerprint {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(InputFingerprint.class);
+
+    private static final @NotNull String INDEX_NAMESPACE = "inputs";
+    /**
+     * Files modified this recently are not indexed, as a later modification within the resolution of the file
+     * system timestamps would not change their modification time.
+     */
+    private static final long MODIFICATION_TIME_RESOLUTION = 2_000;
+
+    private InputFingerprint() {
+    }
+
+    /**
+     * Lists all files and directories directly in the project directory, except the excluded ones, for example
+     * build output directories.
+     *
+     * @param projectDirectory the project directory
+     * @param excludedNames    the names of the excluded files and directories
+     * @return the inputs of the project
+     */
+    static @NotNull List<File> projectInputs(final @NotNull File projectDirectory, final @NotNull String... excludedNames) {
+        final List<String> excluded = Arrays.asList(excludedNames);
+        final File[] files = projectDirectory.listFiles(file -> !excluded.contains(file.getName()));
+        return files == null ? Collections.emptyList() : Arrays.asList(files);
+    }
+
+    /**
+     * @param baseDirectory the directory the inputs belong to, the paths of the input files are hashed relative to it
+     * @param inputs        the input files and directories, missing inputs are allowed
+     * @param values        other inputs of the build, for example properties
+     * @return the hash over the paths and contents of all input files and the values
+     * @throws IOException if an input could not be read
+     */
+    static @NotNull String of(
+            final @NotNull File baseDirectory,
+            final @NotNull Collection<File> inputs,
+            final @NotNull Map<String, String> values) throws IOException {
+
+        final Path base = baseDirectory.getCanonicalFile().toPath();
+        final File indexFile = HostWorkspace.indexFile(INDEX_NAMESPACE,
+                Hashing.sha256().hashString(base.toString(), StandardCharsets.UTF_8).toString());
+        final Properties index = load(indexFile);
+        final Properties newIndex = new Properties();
+        final long now = System.currentTimeMillis();
+
+        final SortedMap<String, String> fileHashes = new TreeMap<>();
+        for (final File input : inputs) {
+            final Path root = input.getCanonicalFile().toPath();
+            if (!Files.exists(root)) {
+                fileHashes.put(base.relativize(root).toString(), "missing");
+                continue;
+            }
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public @NotNull FileVisitResult visitFile(
+                        final @NotNull Path file, final @NotNull BasicFileAttributes attributes) throws IOException {
+
+                    final String path = base.relativize(file).toString().replace(File.separatorChar, '/');
+                    final long size = attributes.size();
+                    final long modified = attributes.lastModifiedTime().toMillis();
+                    final String prefix = size + ":" + modified + ":";
+                    final String indexed = index.getProperty(path);
+                    final String hash;
+                    if (indexed != null && indexed.startsWith(prefix)) {
+                        hash = indexed.substring(prefix.length());
+                    } else {
+                        hash = com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).toString();
+                    }
+                    if (modified < now - MODIFICATION_TIME_RESOLUTION) {
+                        newIndex.setProperty(path, prefix + hash);
+                    }
+                    fileHashes.put(path, hash);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        if (!newIndex.equals(index)) {
+            store(newIndex, indexFile);
+        }
+
+        final Hasher hasher = Hashing.sha256().newHasher();
+        fileHashes.forEach((path, hash) -> hasher.putString(path, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(hash, StandardCharsets.UTF_8).putByte((byte) 0));
+        hasher.putByte((byte) 1);
+        new TreeMap<>(values).forEach((key, value) -> hasher.putString(key, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(value, StandardCharsets.UTF_8).putByte((byte) 0));
+        return hasher.hash().toString();
+    }
+
+    private static @NotNull Properties load(final @NotNull File indexFile) {
+        final Properties index = new Properties();
+        if (indexFile.isFile()) {
+            try (final InputStream inputStream = Files.newInputStream(indexFile.toPath())) {
+                index.load(inputStream);
+            } catch (final IOException | IllegalArgumentException e) {
+                logger.debug("Could not read the input index '{}'.", indexFile, e);
+                index.clear();
+            }
+        }
+        return index;
+    }
+
+    private static void store(final @NotNull Properties index, final @NotNull File indexFile) {
+        try {
+            final Path tempFile = Files.createTempFile(indexFile.getParentFile().toPath(), indexFile.getName(), ".tmp");
+            try (final OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                index.store(outputStream, null);
+            }
+            Files.move(tempFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            logger.debug("Could not write the input index '{}'.", indexFile, e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns a stream of output frames into complete lines.
+ * A frame may contain a part of a line, exactly one line or several lines.
+ * <p>
+ * Complete lines inside a frame are passed on as slices of the frame without copying,
+ * only the incomplete tail of a frame is copied into a reusable buffer until its line is completed.
+ * Lines include their line terminator.
+ *
+ * @since 2.0.0
+ */
+class LineAssembler {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+    private @NotNull ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    void append(final byte @NotNull [] bytes, final @NotNull LineConsumer consumer) {
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            if (buffer.position() > 0) {
+                put(bytes, lineStart, i + 1 - lineStart);
+                flush(consumer);
+            } else {
+                consumer.onLine(bytes, lineStart, i + 1 - lineStart);
+            }
+            lineStart = i + 1;
+        }
+        if (lineStart < bytes.length) {
+            put(bytes, lineStart, bytes.length - lineStart);
+            if (buffer.position() >= MAX_LINE_LENGTH) {
+                flush(consumer);
+            }
+        }
+    }
+
+    /**
+     * Passes on the buffered incomplete line, if there is one.
+     *
+     * @param consumer the consumer of the line
+     */
+    void flush(final @NotNull LineConsumer consumer) {
+        if (buffer.position() > 0) {
+            final int length = buffer.position();
+            buffer.clear();
+            consumer.onLine(buffer.array(), 0, length);
+        }
+    }
+
+    private void put(final byte @NotNull [] bytes, final int offset, final int length) {
+        if (buffer.remaining() < length) {
+            final ByteBuffer grown =
+                    ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        buffer.put(bytes, offset, length);
+    }
+
+    interface LineConsumer {
+
+        /**
+         * The bytes are only valid during this call, they must be copied if they are needed afterwards.
+         *
+         * @param bytes  the bytes containing the line
+         * @param offset the offset of the line in the bytes
+         * @param length the length of the line
+         */
+        void onLine(byte @NotNull [] bytes, int offset, int length);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton that finds multiple byte literals in a single pass over the input bytes.
+ *
+ * @since 2.0.0
+ */
+class LiteralAutomaton {
+
+    private static final int ROOT = 0;
+
+    private final int literalCount;
+    private final byte[][] childBytes;
+    private final int[][] childStates;
+    private final int[] failure;
+    private final int[][] outputs;
+
+    LiteralAutomaton(final @NotNull List<byte[]> literals) {
+        literalCount = literals.size();
+
+        final List<byte[]> keys = new ArrayList<>();
+        final List<int[]> targets = new ArrayList<>();
+        final List<int[]> outputList = new ArrayList<>();
+        keys.add(new byte[0]);
+        targets.add(new int[0]);
+        outputList.add(new int[0]);
+
+        for (int literal = 0; literal < literals.size(); literal++) {
+            int state = ROOT;
+            for (final byte b : literals.get(literal)) {
+                int next = child(keys.get(state), targets.get(state), b);
+                if (next < 0) {
+                    next = keys.size();
+                    keys.add(new byte[0]);
+                    targets.add(new int[0]);
+                    outputList.add(new int[0]);
+                    keys.set(state, append(keys.get(state), b));
+                    targets.set(state, append(targets.get(state), next));
+                }
+                state = next;
+            }
+            outputList.set(state, append(outputList.get(state), literal));
+        }
+
+        final int states = keys.size();
+        childBytes = keys.toArray(new byte[states][]);
+        childStates = targets.toArray(new int[states][]);
+        outputs = outputList.toArray(new int[states][]);
+        failure = new int[states];
+
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (final int child : childStates[ROOT]) {
+            failure[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            for (int i = 0; i < childBytes[state].length; i++) {
+                final byte b = childBytes[state][i];
+                final int child = childStates[state][i];
+                queue.add(child);
+                int fallback = failure[state];
+                while (fallback != ROOT && child(childBytes[fallback], childStates[fallback], b) < 0) {
+                    fallback = failure[fallback];
+                }
+                final int fallbackChild = child(childBytes[fallback], childStates[fallback], b);
+                failure[child] = fallbackChild >= 0 && fallbackChild != child ? fallbackChild : ROOT;
+                outputs[child] = concat(outputs[child], outputs[failure[child]]);
+            }
+        }
+    }
+
+    /**
+     * @param bytes  the input
+     * @param offset the offset of the first byte to scan
+     * @param length the amount of bytes to scan
+     * @return the indices of all literals that are contained in the scanned bytes
+     */
+    @NotNull BitSet scan(final byte @NotNull [] bytes, final int offset, final int length) {
+        final BitSet found = new BitSet(literalCount);
+        int remaining = literalCount;
+        int state = ROOT;
+        final int end = offset + length;
+        for (int i = offset; i < end && remaining > 0; i++) {
+            final byte b = bytes[i];
+            int next = child(childBytes[state], childStates[state], b);
+            while (next < 0 && state != ROOT) {
+                state = failure[state];
+                next = child(childBytes[state], childStates[state], b);
+            }
+            state = next < 0 ? ROOT : next;
+            for (final int literal : outputs[state]) {
+                if (!found.get(literal)) {
+                    found.set(literal);
+                    remaining--;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int child(final byte @NotNull [] keys, final int @NotNull [] targets, final byte b) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == b) {
+                return targets[i];
+            }
+        }
+        return -1;
+    }
+
+    private static byte @NotNull [] append(final byte @NotNull [] array, final byte value) {
+        final byte[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int @NotNull [] append(final int @NotNull [] array, final int value) {
+        final int[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int @NotNull [] concat(final int @NotNull [] first, final int @NotNull [] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        final int[] copy = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, copy, first.length, second.length);
+        return copy;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable index over patterns that selects the patterns which can possibly match raw container output.
+ * <p>
+ * The literal every match of a pattern must contain is extracted once. All literals are searched in a single pass
+ * over the raw bytes, so the full regular expression only runs, and the output only needs to be decoded,
+ * for candidates whose literal was found. Patterns without an extractable literal are always candidates.
+ *
+ * @param <T> the type of the indexed values
+ * @since 2.0.0
+ */
+class LiteralPatternIndex<T> {
+
+    private static final @NotNull LiteralPatternIndex<?> EMPTY =
+            new LiteralPatternIndex<>(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+    private final @NotNull List<T> literalValues;
+    private final @NotNull List<T> alwaysCandidates;
+    private final @Nullable LiteralAutomaton automaton;
+
+    private LiteralPatternIndex(
+            final @NotNull List<T> literalValues,
+            final @NotNull List<byte[]> literals,
+            final @NotNull List<T> alwaysCandidates) {
+
+        this.literalValues = literalValues;
+        this.alwaysCandidates = alwaysCandidates;
+        this.automaton = literals.isEmpty() ? null : new LiteralAutomaton(literals);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> @NotNull LiteralPatternIndex<T> empty() {
+        return (LiteralPatternIndex<T>) EMPTY;
+    }
+
+    static <T> @NotNull LiteralPatternIndex<T> of(
+            final @NotNull Collection<T> values,
+            final @NotNull Function<T, Pattern> patternFunction) {
+
+        final List<T> literalValues = new ArrayList<>();
+        final List<byte[]> literals = new ArrayList<>();
+        final List<T> alwaysCandidates = new ArrayList<>();
+        for (final T value : values) {
+            final String literal = PatternLiterals.requiredLiteral(patternFunction.apply(value));
+            if (literal == null) {
+                alwaysCandidates.add(value);
+            } else {
+                literalValues.add(value);
+                literals.add(literal.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return new LiteralPatternIndex<>(literalValues, literals, alwaysCandidates);
+    }
+
+    boolean isEmpty() {
+        return literalValues.isEmpty() && alwaysCandidates.isEmpty();
+    }
+
+    /**
+     * Passes every value whose pattern can possibly match the given bytes to the consumer.
+     *
+     * @param bytes    the raw output
+     * @param offset   the offset of the output in the bytes
+     * @param length   the length of the output
+     * @param consumer the consumer of the candidates
+     */
+    void forEachCandidate(
+            final byte @NotNull [] bytes,
+            final int offset,
+            final int length,
+            final @NotNull Consumer<T> consumer) {
+
+        alwaysCandidates.forEach(consumer);
+        if (automaton != null) {
+            final BitSet found = automaton.scan(bytes, offset, length);
+            for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+                consumer.accept(literalValues.get(i));
+            }
+        }
+    }
+}
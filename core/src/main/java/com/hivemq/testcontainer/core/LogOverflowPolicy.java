@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+/**
+ * Determines what happens to container output when the buffer of the asynchronous log output is full.
+ *
+ * @see HiveMQTestContainerCore#withAsyncLogOutput(int, LogOverflowPolicy)
+ * @since 2.0.0
+ */
+public enum LogOverflowPolicy {
+
+    /**
+     * The container output is dropped and counted in {@link HiveMQTestContainerCore#getDroppedLogLines()}.
+     */
+    DROP,
+
+    /**
+     * The thread consuming the container output blocks until the buffer has space again.
+     */
+    BLOCK
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Completes subscriptions with the first container output that matches their pattern.
+ * Frames are scanned for the literals of all pending patterns at once, only candidate frames are decoded and matched.
+ * The index of the literals is rebuilt by the output thread before the next frame after subscriptions changed, so
+ * subscribing and completing never wait for the output thread and many changes cause a single rebuild.
+ * Any number of subscriptions can be pending at the same time, a subscription is removed as soon as it is completed,
+ * timed out or cancelled.
+ * <p>
+ * The futures are completed by {@link ContainerExecutors#callbacks()}, so callbacks of the futures can block without
+ * stalling the consumption of the container output or the timeouts of other subscriptions.
+ *
+ * @since 2.0.0
+ */
+class LogSubscriptions implements ContainerOutputDispatcher.Listener {
+
+    private final static @NotNull Logger logger = LoggerFactory.getLogger(LogSubscriptions.class);
+
+    private final @NotNull Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final @NotNull AtomicBoolean indexOutdated = new AtomicBoolean();
+    private volatile @NotNull LiteralPatternIndex<Subscription> index = LiteralPatternIndex.empty();
+
+    @NotNull CompletableFuture<OutputFrame> subscribe(final @NotNull Pattern pattern, final @NotNull Duration timeout) {
+        final Subscription subscription = new Subscription(pattern);
+        subscriptions.add(subscription);
+        indexOutdated.set(true);
+
+        final ScheduledFuture<?> timeoutFuture = ContainerExecutors.scheduler().schedule(
+                () -> ContainerExecutors.callbacks().execute(() -> subscription.future.completeExceptionally(
+                        new TimeoutException("No container output matched '" + pattern + "' within " +
+                                timeout.toMillis() + " ms"))),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+        subscription.future.whenComplete((outputFrame, throwable) -> {
+            subscriptions.remove(subscription);
+            indexOutdated.set(true);
+            timeoutFuture.cancel(false);
+        });
+        return subscription.future;
+    }
+
+    @Override
+    public void onOutput(final @NotNull ContainerOutputFrame frame) {
+        if (indexOutdated.compareAndSet(true, false)) {
+            // cleared before the snapshot, so changes during the rebuild are picked up with the next frame
+            index = LiteralPatternIndex.of(new ArrayList<>(subscriptions), subscription -> subscription.pattern);
+        }
+        final LiteralPatternIndex<Subscription> current = index;
+        if (current.isEmpty()) {
+            return;
+        }
+        current.forEachCandidate(frame.getBytes(), frame.getOffset(), frame.getLength(), subscription -> {
+            if (!subscription.matched && !subscription.future.isDone() &&
+                    subscription.pattern.matcher(frame.getUtf8String()).find()) {
+
+                subscription.matched = true;
+                logger.debug("Container Output '{}' matched RegEx '{}'", frame.getUtf8String(), subscription.pattern);
+                final OutputFrame outputFrame = frame.getOutputFrame();
+                ContainerExecutors.callbacks().execute(() -> subscription.future.complete(outputFrame));
+            }
+        });
+    }
+
+    private static class Subscription {
+
+        private final @NotNull Pattern pattern;
+        private final @NotNull CompletableFuture<OutputFrame> future = new CompletableFuture<>();
+        // set by the output thread when matched, the future is completed later by another thread
+        private volatile boolean matched;
+
+        private Subscription(final @NotNull Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
@@ -23,9 +23,11 @@ import org.jetbrains.annotations.NotNull;
 import org.testcontainers.utility.MountableFile;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.function.Supplier;
 
 /**
@@ -36,8 +38,14 @@ import java.util.function.Supplier;
  */
 public class MavenHiveMQExtensionSupplier implements Supplier<MountableFile> {
 
+    private static final @NotNull String CACHE_NAMESPACE = "maven-extensions";
+    private static final @NotNull String ZIP_CACHE_NAMESPACE = "maven-extension-zips";
+    private static final @NotNull String DISTRIBUTION_ZIP = "distribution.zip";
+    private static final @NotNull String @NotNull [] EXCLUDED_INPUTS = {"target", ".git", ".idea"};
+
     private final @NotNull String pomFile;
     private boolean quiet = false;
+    private boolean cached = true;
     private final @NotNull Properties properties = new Properties();
 
     /**
@@ -63,12 +71,64 @@ public class MavenHiveMQExtensionSupplier implements Supplier<MountableFile> {
 
     /**
      * Packages the HiveMQ extension, copies it to a temporary directory and returns the directory as a {@link File}.
+     * <p>
+     * The extracted extension is cached by the content of all files in the directory of the pom.xml, except the target,
+     * .git and .idea directories, and by the added properties. This includes the sources, resources, assembly
+     * descriptors and the .mvn directory. If none of them changed since a previous packaging, also in a previous JVM,
+     * the cached extension is returned without running maven.
+     * <p>
+     * Inputs outside of the project directory, like parent poms or snapshot dependencies, are not covered, use
+     * {@link #uncached()} if they change.
      *
      * @return the {@link File} of the packaged HiveMQ extension
+     * @see #uncached()
      * @since 1.1.0
      */
     @Override
     public @NotNull MountableFile get() {
+        try {
+            if (!cached) {
+                final File directory = HostWorkspace.temporaryDirectory("maven-extension");
+                return MountableFile.forHostPath(PathUtil.extractedExtensionDirectory(packageInto(directory)).toPath());
+            }
+            final File directory = HostWorkspace.cached(CACHE_NAMESPACE, inputHash(), this::packageInto);
+            return MountableFile.forHostPath(PathUtil.extractedExtensionDirectory(directory).toPath());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Packages the HiveMQ extension like {@link #get()}, but returns the distribution zip without extracting it.
+     * The extension is streamed from the zip into the container when the container is created.
+     * <p>
+     * Unless {@link #uncached() uncached}, the zip is copied into the cache, so it stays unchanged when the project is
+     * built again.
+     *
+     * @return the packaged HiveMQ extension zip
+     * @see HiveMQTestContainerCore#withExtension(HiveMQExtensionZip)
+     * @see HiveMQTestContainerCore#withExtensionZip(Supplier)
+     * @since 2.0.0
+     */
+    public @NotNull HiveMQExtensionZip getZip() {
+        try {
+            if (!cached) {
+                return new HiveMQExtensionZip(buildDistributionZip());
+            }
+            final File directory = HostWorkspace.cached(ZIP_CACHE_NAMESPACE, inputHash(), zipDirectory ->
+                    Files.copy(buildDistributionZip().toPath(), new File(zipDirectory, DISTRIBUTION_ZIP).toPath()));
+            return new HiveMQExtensionZip(new File(directory, DISTRIBUTION_ZIP));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private @NotNull File packageInto(final @NotNull File directory) throws IOException {
+        new ZipFile(buildDistributionZip()).extractAll(directory.getAbsolutePath());
+        return directory;
+    }
+
+    private @NotNull File buildDistributionZip() {
         final PomEquippedEmbeddedMaven embeddedMaven = EmbeddedMaven.forProject(pomFile);
         embeddedMaven
                 .setGoals("package")
@@ -80,15 +140,16 @@ public class MavenHiveMQExtensionSupplier implements Supplier<MountableFile> {
         final String version = aPackage.getModel().getVersion();
         final String artifactId = aPackage.getModel().getArtifactId();
 
-        final ZipFile zipFile = new ZipFile(new File(targetDirectory, artifactId + "-" + version + "-distribution.zip"));
+        return new File(targetDirectory, artifactId + "-" + version + "-distribution.zip");
+    }
 
-        try {
-            final Path tempDirectory = Files.createTempDirectory("");
-            zipFile.extractAll(tempDirectory.toString());
-            return MountableFile.forHostPath(tempDirectory.resolve(artifactId));
-        } catch (final Exception e) {
-            throw new RuntimeException(e);
-        }
+    private @NotNull String inputHash() throws IOException {
+        final File pom = new File(pomFile).getAbsoluteFile();
+        final File projectDirectory = pom.getParentFile();
+        final Map<String, String> values = new TreeMap<>();
+        properties.stringPropertyNames().forEach(key -> values.put("property:" + key, properties.getProperty(key)));
+        values.put("pom", pom.getName());
+        return InputFingerprint.of(projectDirectory, InputFingerprint.projectInputs(projectDirectory, EXCLUDED_INPUTS), values);
     }
 
     /**
@@ -101,6 +162,21 @@ public class MavenHiveMQExtensionSupplier implements Supplier<MountableFile> {
         return this;
     }
 
+    /**
+     * Always run maven, instead of reusing a cached extension if the project directory and the properties did not
+     * change.
+     * <p>
+     * This is required if the extension depends on something else that may change, for example a parent pom or
+     * snapshot dependencies.
+     *
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull MavenHiveMQExtensionSupplier uncached() {
+        this.cached = false;
+        return this;
+    }
+
     /**
      * Add a custom property for the maven packaging.
      *
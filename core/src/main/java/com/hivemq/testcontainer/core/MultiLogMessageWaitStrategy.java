@@ -16,64 +16,93 @@
 package com.hivemq.testcontainer.core;
 
 import org.jetbrains.annotations.NotNull;
-import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.ContainerLaunchException;
-import org.testcontainers.containers.output.OutputFrame;
-import org.testcontainers.containers.output.WaitingConsumer;
 import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
-import org.testcontainers.utility.LogUtils;
 
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.function.Predicate;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * This is a wait strategy to wait for multiple log patterns.
  * The wait strategy will continue when every log pattern is matched at least once.
+ * <p>
+ * The patterns are compiled once when they are added. Every line is first scanned for the literals of the patterns,
+ * only lines that contain the literal of a pattern that did not match yet are decoded and matched.
+ * The wait strategy does not follow the container output itself, it is fed by the {@link ContainerOutputDispatcher}.
  *
  * @author Yannick Weber
  * @since 1.2.0
  */
-class MultiLogMessageWaitStrategy extends AbstractWaitStrategy {
+class MultiLogMessageWaitStrategy extends AbstractWaitStrategy implements ContainerOutputDispatcher.Listener {
 
-    private final @NotNull ConcurrentHashMap<String, Boolean> regexes = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, Pattern> regexes = new ConcurrentHashMap<>();
+    private final @NotNull Set<Pattern> unmatched = ConcurrentHashMap.newKeySet();
+    private volatile @NotNull LiteralPatternIndex<Pattern> index = LiteralPatternIndex.empty();
+    private final @NotNull Object monitor = new Object();
 
     @Override
     protected void waitUntilReady() {
-        WaitingConsumer waitingConsumer = new WaitingConsumer();
-        LogUtils.followOutput(DockerClientFactory.instance().client(), waitStrategyTarget.getContainerId(), waitingConsumer);
+        final long deadline = System.nanoTime() + startupTimeout.toNanos();
+        synchronized (monitor) {
+            while (!unmatched.isEmpty()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ContainerLaunchException("Timed out waiting for log output matching '" + regexes.keySet() + "'");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ContainerLaunchException("Interrupted while waiting for log output matching '" + regexes.keySet() + "'", e);
+                }
+            }
+        }
+    }
 
-        Predicate<OutputFrame> waitPredicate = outputFrame -> {
-            if (regexes.isEmpty()) {
-                return true;
+    @Override
+    public void onOutput(final @NotNull ContainerOutputFrame frame) {
+        if (unmatched.isEmpty()) {
+            return;
+        }
+        if (matches(frame)) {
+            synchronized (monitor) {
+                monitor.notifyAll();
             }
-            regexes.entrySet().forEach(stringBooleanEntry -> {
-                final boolean matched = outputFrame.getUtf8String().matches("(?s)" + stringBooleanEntry.getKey());
-                if (matched) {
-                    stringBooleanEntry.setValue(true);
-                }
-            });
-            return regexes.values().stream().reduce(Boolean::logicalAnd).orElse(true);
-        };
+        }
+    }
 
-        try {
-            waitingConsumer.waitUntil(waitPredicate, startupTimeout.getSeconds(), TimeUnit.SECONDS, 1);
-        } catch (TimeoutException e) {
-            throw new ContainerLaunchException("Timed out waiting for log output matching '" + regexes + "'");
+    /**
+     * Matches the given frame against all patterns that did not match yet.
+     *
+     * @param frame the container output
+     * @return whether every pattern has matched at least once
+     */
+    boolean matches(final @NotNull ContainerOutputFrame frame) {
+        if (unmatched.isEmpty()) {
+            return true;
         }
+        index.forEachCandidate(frame.getBytes(), frame.getOffset(), frame.getLength(), pattern -> {
+            if (unmatched.contains(pattern) && pattern.matcher(frame.getUtf8String()).matches()) {
+                unmatched.remove(pattern);
+            }
+        });
+        return unmatched.isEmpty();
     }
 
-    public @NotNull MultiLogMessageWaitStrategy withRegEx(final @NotNull String regEx) {
-        regexes.put(regEx, false);
+    public synchronized @NotNull MultiLogMessageWaitStrategy withRegEx(final @NotNull String regEx) {
+        final Pattern pattern = regexes.computeIfAbsent(regEx, key -> Pattern.compile(key, Pattern.DOTALL));
+        index = LiteralPatternIndex.of(new ArrayList<>(regexes.values()), Function.identity());
+        unmatched.add(pattern);
         return this;
     }
 
     public @NotNull MultiLogMessageWaitStrategy reset() {
-        for (final Map.Entry<String, Boolean> stringBooleanEntry : regexes.entrySet()) {
-            stringBooleanEntry.setValue(false);
-        }
+        unmatched.addAll(regexes.values());
         return this;
     }
 }
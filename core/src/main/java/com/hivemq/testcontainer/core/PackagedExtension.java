@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.images.builder.Transferable;
+
+import java.io.IOException;
+
+/**
+ * An extension packaged in memory, which is transferred into the container as an extension directory containing
+ * the hivemq-extension.xml, the extension.jar and the DISABLED file if the extension is disabled on startup.
+ *
+ * @since 2.0.0
+ */
+class PackagedExtension implements Transferable {
+
+    private static final int DIRECTORY_MODE = 040777;
+    private static final int FILE_MODE = 0100777;
+
+    private final @NotNull String id;
+    private final @NotNull String cacheKey;
+    private final byte @NotNull [] xml;
+    private final boolean disabledOnStartup;
+    private final byte @NotNull [] jar;
+
+    PackagedExtension(
+            final @NotNull String id,
+            final @NotNull String cacheKey,
+            final byte @NotNull [] xml,
+            final boolean disabledOnStartup,
+            final byte @NotNull [] jar) {
+
+        this.id = id;
+        this.cacheKey = cacheKey;
+        this.xml = xml;
+        this.disabledOnStartup = disabledOnStartup;
+        this.jar = jar;
+    }
+
+    @NotNull String getId() {
+        return id;
+    }
+
+    @NotNull String getCacheKey() {
+        return cacheKey;
+    }
+
+    byte @NotNull [] getXml() {
+        return xml;
+    }
+
+    boolean isDisabledOnStartup() {
+        return disabledOnStartup;
+    }
+
+    byte @NotNull [] getJar() {
+        return jar;
+    }
+
+    @Override
+    public long getSize() {
+        return xml.length + jar.length;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "extension '" + id + "'";
+    }
+
+    @Override
+    public void transferTo(final @NotNull TarArchiveOutputStream tarArchiveOutputStream, final @NotNull String destination) {
+        final String directory = destination.endsWith("/") ? destination : destination + "/";
+        try {
+            final TarArchiveEntry directoryEntry = new TarArchiveEntry(directory);
+            directoryEntry.setMode(DIRECTORY_MODE);
+            tarArchiveOutputStream.putArchiveEntry(directoryEntry);
+            tarArchiveOutputStream.closeArchiveEntry();
+
+            putFile(tarArchiveOutputStream, directory + "hivemq-extension.xml", xml);
+            putFile(tarArchiveOutputStream, directory + "extension.jar", jar);
+            if (disabledOnStartup) {
+                putFile(tarArchiveOutputStream, directory + "DISABLED", new byte[0]);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Can't transfer " + getDescription(), e);
+        }
+    }
+
+    private static void putFile(
+            final @NotNull TarArchiveOutputStream tarArchiveOutputStream,
+            final @NotNull String name,
+            final byte @NotNull [] content) throws IOException {
+
+        final TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(content.length);
+        entry.setMode(FILE_MODE);
+        tarArchiveOutputStream.putArchiveEntry(entry);
+        tarArchiveOutputStream.write(content);
+        tarArchiveOutputStream.closeArchiveEntry();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Starts multiple containers concurrently and fails as soon as one of them fails.
+ *
+ * @since 2.0.0
+ */
+class ParallelStartup {
+
+    private ParallelStartup() {
+    }
+
+    /**
+     * Starts all containers concurrently.
+     * <p>
+     * The returned future completes exceptionally as soon as one container fails to start, without waiting for the
+     * other containers. In that case all other containers are stopped once their start finished, so no container is
+     * left running.
+     *
+     * @param containers the containers to start
+     * @return a future that completes when all containers are started
+     */
+    static @NotNull CompletableFuture<Void> startAll(final @NotNull Startable... containers) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final CompletableFuture<?>[] starts = new CompletableFuture<?>[containers.length];
+        for (int i = 0; i < containers.length; i++) {
+            starts[i] = CompletableFuture.runAsync(containers[i]::start, ContainerExecutors.starter())
+                    .whenComplete((ignored, throwable) -> {
+                        if (throwable != null) {
+                            result.completeExceptionally(unwrap(throwable));
+                        }
+                    });
+        }
+        CompletableFuture.allOf(starts).thenRun(() -> result.complete(null));
+
+        result.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                for (int i = 0; i < containers.length; i++) {
+                    starts[i].thenRun(containers[i]::stop);
+                }
+            }
+        });
+        return result;
+    }
+
+    static @NotNull Throwable unwrap(final @NotNull Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+}
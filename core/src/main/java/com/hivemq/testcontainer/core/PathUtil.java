@@ -17,6 +17,8 @@ package com.hivemq.testcontainer.core;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+
 /**
  * @author Yannick Weber
  */
@@ -34,4 +36,17 @@ class PathUtil {
         }
         return pathInExtensionHome;
     }
+
+    /**
+     * @param directory the directory an extension distribution zip was extracted to
+     * @return the extension directory, the only directory contained in the distribution zip
+     */
+    static @NotNull File extractedExtensionDirectory(final @NotNull File directory) {
+        final File[] extensionDirectories = directory.listFiles(File::isDirectory);
+        if (extensionDirectories == null || extensionDirectories.length != 1) {
+            throw new IllegalStateException(
+                    "The distribution zip extracted to '" + directory + "' must contain exactly one directory.");
+        }
+        return extensionDirectories[0];
+    }
 }
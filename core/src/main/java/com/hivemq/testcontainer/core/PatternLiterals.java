@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Pattern;
+
+/**
+ * Extracts a literal from a regular expression that is contained in every input the expression matches.
+ * <p>
+ * The extraction is conservative: only literal characters outside of groups and character classes are considered,
+ * and expressions using alternations or case insensitive matching yield no literal at all.
+ *
+ * @since 2.0.0
+ */
+class PatternLiterals {
+
+    private static final @NotNull String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final @NotNull String ESCAPES_WITH_ARGUMENTS = "xucpPNk";
+    private static final int UNSUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ;
+
+    private PatternLiterals() {
+    }
+
+    /**
+     * @param pattern the pattern
+     * @return the longest literal every match of the pattern must contain or null if there is none
+     */
+    static @Nullable String requiredLiteral(final @NotNull Pattern pattern) {
+        if ((pattern.flags() & UNSUPPORTED_FLAGS) != 0) {
+            return null;
+        }
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return pattern.pattern().isEmpty() ? null : pattern.pattern();
+        }
+        final String regex = pattern.pattern();
+        final StringBuilder run = new StringBuilder();
+        String longest = "";
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return null;
+                }
+                final char escaped = regex.charAt(i + 1);
+                if (escaped == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    final int quoteEnd = end < 0 ? regex.length() : end;
+                    run.append(regex, i + 2, quoteEnd);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else if (!Character.isLetterOrDigit(escaped)) {
+                    run.append(escaped);
+                    i += 2;
+                } else if (Character.isDigit(escaped) || ESCAPES_WITH_ARGUMENTS.indexOf(escaped) >= 0) {
+                    return null;
+                } else {
+                    longest = longer(longest, run);
+                    i += 2;
+                }
+            } else if (c == '|') {
+                return null;
+            } else if (c == '(') {
+                if (regex.startsWith("(?", i) && hasUnsupportedInlineFlag(regex, i + 2)) {
+                    return null;
+                }
+                longest = longer(longest, run);
+                i = skipGroup(regex, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '[') {
+                longest = longer(longest, run);
+                i = skipCharacterClass(regex, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '?' || c == '*' || c == '{') {
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+                longest = longer(longest, run);
+                i = skipQuantifier(regex, i);
+            } else if (c == '+') {
+                longest = longer(longest, run);
+                i = skipQuantifier(regex, i);
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                longest = longer(longest, run);
+                i++;
+            } else {
+                run.append(c);
+                i++;
+            }
+        }
+        longest = longer(longest, run);
+        return longest.isEmpty() ? null : longest;
+    }
+
+    private static @NotNull String longer(final @NotNull String longest, final @NotNull StringBuilder run) {
+        final String candidate = run.length() > longest.length() ? run.toString() : longest;
+        run.setLength(0);
+        return candidate;
+    }
+
+    private static boolean hasUnsupportedInlineFlag(final @NotNull String regex, final int start) {
+        for (int i = start; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == 'i' || c == 'x' || c == 'u' || c == 'U') {
+                return true;
+            }
+            if (!Character.isLetter(c) && c != '-') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static int skipGroup(final @NotNull String regex, final int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharacterClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return skipQuantifier(regex, i + 1);
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipCharacterClass(final @NotNull String regex, final int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                if (regex.startsWith("^]", i + 1)) {
+                    i += 2;
+                } else if (regex.startsWith("]", i + 1)) {
+                    i++;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return skipQuantifier(regex, i + 1);
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipQuantifier(final @NotNull String regex, final int start) {
+        int i = start;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '?' || c == '*' || c == '+') {
+                i++;
+            } else if (c == '{') {
+                final int end = regex.indexOf('}', i);
+                i = end < 0 ? regex.length() : end + 1;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records the phases of a container start for the {@link StartupReport}.
+ * <p>
+ * Host phases are reported by the container lifecycle, broker phases are parsed from the HiveMQ log until HiveMQ
+ * logged that it is started. The literals of the phases are searched in the raw bytes, so only lines of a phase are
+ * decoded. After HiveMQ started every line is skipped with a single volatile read.
+ *
+ * @since 2.0.0
+ */
+class StartupRecorder implements ContainerOutputDispatcher.Listener {
+
+    private static final int JVM_STARTED = 0;
+    private static final int PERSISTENCE = 1;
+    private static final int EXTENSION_STARTED = 2;
+    private static final int HIVEMQ_STARTED = 3;
+    /**
+     * Finds the literals of all broker phases in the raw bytes, so only lines of a phase are decoded.
+     */
+    private static final @NotNull LiteralAutomaton PHASE_LITERALS = new LiteralAutomaton(Arrays.asList(
+            "Starting HiveMQ".getBytes(StandardCharsets.UTF_8),
+            "persistence".getBytes(StandardCharsets.UTF_8),
+            "started successfully".getBytes(StandardCharsets.UTF_8),
+            "Started HiveMQ in".getBytes(StandardCharsets.UTF_8)));
+    private static final @NotNull Pattern EXTENSION_STARTED_PATTERN =
+            Pattern.compile("Extension \"(.*)\" version .* started successfully");
+    private static final @NotNull Pattern STARTED_PATTERN = Pattern.compile("Started HiveMQ in (\\d+)\\s*ms");
+
+    private final @NotNull Clock clock;
+    private final @NotNull List<StartupReport.Phase> phases = new ArrayList<>();
+    private @NotNull Instant startedAt;
+    private @Nullable Duration brokerReportedStartup;
+    private boolean jvmStarted;
+    private boolean persistenceInitialization;
+    private volatile boolean parsingLog;
+
+    StartupRecorder() {
+        this(Clock.systemUTC());
+    }
+
+    StartupRecorder(final @NotNull Clock clock) {
+        this.clock = clock;
+        this.startedAt = clock.instant();
+    }
+
+    /**
+     * Discards the phases of the previous start and records the start request.
+     */
+    synchronized void begin() {
+        phases.clear();
+        startedAt = clock.instant();
+        brokerReportedStartup = null;
+        jvmStarted = false;
+        persistenceInitialization = false;
+        parsingLog = true;
+        phases.add(new StartupReport.Phase(StartupReport.START_REQUESTED, StartupReport.Source.HOST, startedAt, Duration.ZERO));
+    }
+
+    synchronized void host(final @NotNull String name) {
+        record(name, StartupReport.Source.HOST);
+    }
+
+    synchronized @NotNull StartupReport finish() {
+        parsingLog = false;
+        return new StartupReport(startedAt, phases, brokerReportedStartup);
+    }
+
+    @Override
+    public void onOutput(final @NotNull ContainerOutputFrame frame) {
+        if (!parsingLog) {
+            return;
+        }
+        final BitSet found = PHASE_LITERALS.scan(frame.getBytes(), frame.getOffset(), frame.getLength());
+        if (!found.isEmpty()) {
+            parse(found, frame.getUtf8String());
+        }
+    }
+
+    private synchronized void parse(final @NotNull BitSet found, final @NotNull String line) {
+        if (!parsingLog) {
+            return;
+        }
+        if (!jvmStarted && found.get(JVM_STARTED)) {
+            jvmStarted = true;
+            record(StartupReport.BROKER_JVM_STARTED, StartupReport.Source.BROKER);
+        } else if (!persistenceInitialization && found.get(PERSISTENCE)) {
+            persistenceInitialization = true;
+            record(StartupReport.BROKER_PERSISTENCE_INITIALIZATION, StartupReport.Source.BROKER);
+        } else if (found.get(EXTENSION_STARTED)) {
+            final Matcher matcher = EXTENSION_STARTED_PATTERN.matcher(line);
+            if (matcher.find()) {
+                record(StartupReport.BROKER_EXTENSION_STARTED + matcher.group(1), StartupReport.Source.BROKER);
+            }
+        } else if (found.get(HIVEMQ_STARTED)) {
+            final Matcher matcher = STARTED_PATTERN.matcher(line);
+            if (matcher.find()) {
+                brokerReportedStartup = Duration.ofMillis(Long.parseLong(matcher.group(1)));
+            }
+            record(StartupReport.BROKER_STARTED, StartupReport.Source.BROKER);
+            parsingLog = false;
+        }
+    }
+
+    private void record(final @NotNull String name, final @NotNull StartupReport.Source source) {
+        final Instant now = clock.instant();
+        phases.add(new StartupReport.Phase(name, source, now, Duration.between(startedAt, now)));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timings of the phases of a start of the HiveMQ container.
+ * <p>
+ * Host phases are recorded when the Testcontainers lifecycle reaches them. Broker phases are recorded when the
+ * corresponding line of the HiveMQ log is received by the host, so they include a small delay for the log transport.
+ *
+ * @see HiveMQTestContainerCore#getStartupReport()
+ * @since 2.0.0
+ */
+public final class StartupReport {
+
+    /**
+     * {@link HiveMQTestContainerCore#start()} was called.
+     */
+    public static final @NotNull String START_REQUESTED = "start requested";
+    /**
+     * The container was configured.
+     */
+    public static final @NotNull String CONFIGURED = "configured";
+    /**
+     * The image was pulled or built, if it was not available locally.
+     */
+    public static final @NotNull String IMAGE_RESOLVED = "image resolved";
+    /**
+     * The container was created.
+     */
+    public static final @NotNull String CREATED = "created";
+    /**
+     * The extension suppliers finished, only recorded if extensions were added as suppliers.
+     */
+    public static final @NotNull String EXTENSIONS_SUPPLIED = "extensions supplied";
+    /**
+     * The extensions, configuration and files were copied into the container.
+     */
+    public static final @NotNull String FILES_COPIED = "files copied";
+    /**
+     * The container is running.
+     */
+    public static final @NotNull String RUNNING = "running";
+    /**
+     * The wait strategy is satisfied, {@link HiveMQTestContainerCore#start()} returns.
+     */
+    public static final @NotNull String READY = "ready";
+    /**
+     * The HiveMQ JVM started and logged its first line.
+     */
+    public static final @NotNull String BROKER_JVM_STARTED = "JVM started";
+    /**
+     * HiveMQ started to initialize its persistences.
+     */
+    public static final @NotNull String BROKER_PERSISTENCE_INITIALIZATION = "persistence initialization";
+    /**
+     * Prefix of the phases of the extensions, followed by the name of the extension.
+     */
+    public static final @NotNull String BROKER_EXTENSION_STARTED = "extension started: ";
+    /**
+     * HiveMQ logged that it is started.
+     */
+    public static final @NotNull String BROKER_STARTED = "HiveMQ started";
+
+    private final @NotNull Instant startedAt;
+    private final @NotNull List<Phase> phases;
+    private final @Nullable Duration brokerReportedStartup;
+
+    StartupReport(
+            final @NotNull Instant startedAt,
+            final @NotNull List<Phase> phases,
+            final @Nullable Duration brokerReportedStartup) {
+
+        this.startedAt = startedAt;
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+        this.brokerReportedStartup = brokerReportedStartup;
+    }
+
+    /**
+     * @return the time {@link HiveMQTestContainerCore#start()} was called
+     */
+    public @NotNull Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return all recorded phases in the order they were reached
+     */
+    public @NotNull List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * @param name the name of the phase
+     * @return the first phase with this name or null if the phase was not reached
+     */
+    public @Nullable Phase getPhase(final @NotNull String name) {
+        for (final Phase phase : phases) {
+            if (phase.getName().equals(name)) {
+                return phase;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the time from the start request until the last recorded phase
+     */
+    public @NotNull Duration getTotal() {
+        return phases.isEmpty() ? Duration.ZERO : phases.get(phases.size() - 1).getSinceStart();
+    }
+
+    /**
+     * @return the startup time HiveMQ reported itself or null if HiveMQ did not report it
+     */
+    public @Nullable Duration getBrokerReportedStartup() {
+        return brokerReportedStartup;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        final StringBuilder builder = new StringBuilder("HiveMQ startup report (total ")
+                .append(getTotal().toMillis()).append(" ms");
+        if (brokerReportedStartup != null) {
+            builder.append(", HiveMQ reported ").append(brokerReportedStartup.toMillis()).append(" ms");
+        }
+        builder.append("):");
+        long previousMillis = 0;
+        for (final Phase phase : phases) {
+            final long millis = phase.getSinceStart().toMillis();
+            builder.append(String.format("%n  %-6s %-50s %8d ms (+%d ms)",
+                    phase.getSource(), phase.getName(), millis, millis - previousMillis));
+            previousMillis = millis;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Where a phase was observed.
+     */
+    public enum Source {
+        /**
+         * The phase was reached by the Testcontainers lifecycle on the host.
+         */
+        HOST,
+        /**
+         * The phase was logged by HiveMQ inside the container.
+         */
+        BROKER
+    }
+
+    /**
+     * A single phase of the startup.
+     */
+    public static final class Phase {
+
+        private final @NotNull String name;
+        private final @NotNull Source source;
+        private final @NotNull Instant timestamp;
+        private final @NotNull Duration sinceStart;
+
+        Phase(
+                final @NotNull String name,
+                final @NotNull Source source,
+                final @NotNull Instant timestamp,
+                final @NotNull Duration sinceStart) {
+
+            this.name = name;
+            this.source = source;
+            this.timestamp = timestamp;
+            this.sinceStart = sinceStart;
+        }
+
+        /**
+         * @return the name of the phase
+         */
+        public @NotNull String getName() {
+            return name;
+        }
+
+        /**
+         * @return where the phase was observed
+         */
+        public @NotNull Source getSource() {
+            return source;
+        }
+
+        /**
+         * @return the time the phase was reached
+         */
+        public @NotNull Instant getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return the time from the start request until the phase was reached
+         */
+        public @NotNull Duration getSinceStart() {
+            return sinceStart;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "Phase{" +
+                    "name='" + name + '\'' +
+                    ", source=" + source +
+                    ", sinceStart=" + sinceStart +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A HiveMQ image without some or all of its prepackaged extensions.
+ * <p>
+ * The tag is derived from the id of the base image and the sorted ids of the removed extensions, so different removals
+ * never collide and an image is only built if it does not exist locally yet. The image is kept after the JVM exits.
+ *
+ * @since 2.0.0
+ */
+class WithoutPrepackagedExtensionsImage extends DerivedImage {
+
+    private final @NotNull String repository;
+    private final @Nullable List<String> extensionIds;
+
+    /**
+     * @param baseImage    the HiveMQ image to remove the extensions from
+     * @param extensionIds the ids of the extensions to remove, or null to remove all extensions
+     */
+    WithoutPrepackagedExtensionsImage(final @NotNull String baseImage, final @Nullable Collection<String> extensionIds) {
+        super(DockerImageName.parse(baseImage));
+        this.repository = DockerImageName.parse(baseImage).getRepository();
+        this.extensionIds = extensionIds == null ? null : new ArrayList<>(extensionIds);
+    }
+
+    @Override
+    @NotNull String imageName(final @NotNull String baseImageId) {
+        return imageName(repository, baseImageId, extensionIds);
+    }
+
+    @Override
+    @NotNull ImageFromDockerfile build(final @NotNull ImageFromDockerfile image, final @NotNull String baseImageName) {
+        return image.withDockerfileFromBuilder(builder -> {
+            builder.from(baseImageName);
+            if (extensionIds == null) {
+                builder.run("rm", "-rf", "/opt/hivemq/extensions/");
+            } else {
+                for (final String extensionId : extensionIds) {
+                    builder.run("rm", "-rf", "/opt/hivemq/extensions/" + extensionId);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param repository   the repository of the base image
+     * @param baseImageId  the id of the base image
+     * @param extensionIds the ids of the removed extensions in any order, or null if all extensions are removed
+     * @return the name of the image
+     */
+    static @NotNull String imageName(
+            final @NotNull String repository,
+            final @NotNull String baseImageId,
+            final @Nullable Collection<String> extensionIds) {
+
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(baseImageId, StandardCharsets.UTF_8);
+        if (extensionIds == null) {
+            hasher.putBoolean(true);
+        } else {
+            hasher.putBoolean(false);
+            final List<String> sorted = new ArrayList<>(new TreeSet<>(extensionIds));
+            for (final String extensionId : sorted) {
+                hasher.putInt(extensionId.length());
+                hasher.putString(extensionId, StandardCharsets.UTF_8);
+            }
+        }
+        return imageName(repository + "-without-extensions", hasher);
+    }
+}
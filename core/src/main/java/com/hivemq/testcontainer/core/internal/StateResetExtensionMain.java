@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core.internal;
+
+import com.hivemq.extension.sdk.api.ExtensionMain;
+import com.hivemq.extension.sdk.api.parameter.ExtensionStartInput;
+import com.hivemq.extension.sdk.api.parameter.ExtensionStartOutput;
+import com.hivemq.extension.sdk.api.parameter.ExtensionStopInput;
+import com.hivemq.extension.sdk.api.parameter.ExtensionStopOutput;
+import com.hivemq.extension.sdk.api.services.Services;
+import com.hivemq.extension.sdk.api.services.session.ClientService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Control extension that is packaged into the container by the HiveMQ Testcontainer to reset the broker state.
+ * <p>
+ * A reset is requested by creating a file 'RESET-{token}' in the extension home. The extension then invalidates every
+ * session, which also removes subscriptions and queued messages, clears all retained messages,
+ * deletes the file and prints 'HiveMQ Testcontainer state reset '{token}' completed' to stdout.
+ * <p>
+ * This class is not part of the public API.
+ *
+ * @since 2.0.0
+ */
+public class StateResetExtensionMain implements ExtensionMain {
+
+    public static final @NotNull String RESET_FILE_PREFIX = "RESET-";
+    public static final @NotNull String RESET_LOG_PREFIX = "HiveMQ Testcontainer state reset ";
+
+    private final @NotNull AtomicBoolean resetting = new AtomicBoolean();
+    private @Nullable ScheduledFuture<?> pollFuture;
+
+    @Override
+    public void extensionStart(
+            final @NotNull ExtensionStartInput extensionStartInput,
+            final @NotNull ExtensionStartOutput extensionStartOutput) {
+
+        final File extensionHome = extensionStartInput.getExtensionInformation().getExtensionHomeFolder();
+        pollFuture = Services.extensionExecutorService().scheduleWithFixedDelay(
+                () -> poll(extensionHome), 10, 10, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void extensionStop(
+            final @NotNull ExtensionStopInput extensionStopInput,
+            final @NotNull ExtensionStopOutput extensionStopOutput) {
+
+        if (pollFuture != null) {
+            pollFuture.cancel(false);
+        }
+    }
+
+    private void poll(final @NotNull File extensionHome) {
+        final File[] resetFiles = extensionHome.listFiles((dir, name) -> name.startsWith(RESET_FILE_PREFIX));
+        if (resetFiles == null || resetFiles.length == 0 || !resetting.compareAndSet(false, true)) {
+            return;
+        }
+        final ClientService clientService = Services.clientService();
+        final List<String> clientIds = new CopyOnWriteArrayList<>();
+        clientService.iterateAllClients((context, sessionInformation) -> clientIds.add(sessionInformation.getClientIdentifier()))
+                .thenCompose(ignored -> CompletableFuture.allOf(clientIds.stream()
+                        .map(clientId -> clientService.invalidateSession(clientId).exceptionally(throwable -> false))
+                        .toArray(CompletableFuture[]::new)))
+                .thenCompose(ignored -> Services.retainedMessageStore().clear())
+                .whenComplete((ignored, throwable) -> {
+                    for (final File resetFile : resetFiles) {
+                        final String token = resetFile.getName().substring(RESET_FILE_PREFIX.length());
+                        //noinspection ResultOfMethodCallIgnored
+                        resetFile.delete();
+                        if (throwable == null) {
+                            System.out.println(RESET_LOG_PREFIX + "'" + token + "' completed");
+                        } else {
+                            System.out.println(RESET_LOG_PREFIX + "'" + token + "' failed: " + throwable);
+                        }
+                    }
+                    resetting.set(false);
+                });
+    }
+}
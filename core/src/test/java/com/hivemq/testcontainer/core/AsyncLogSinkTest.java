@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLogSinkTest {
+
+    @Test
+    void print_bufferNotFull_allLinesPrintedInOrder() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final LongAdder droppedLines = new LongAdder();
+        final AsyncLogSink sink = new AsyncLogSink(
+                10, LogOverflowPolicy.DROP, new PrintStream(outputStream, true, "UTF-8"), droppedLines).start();
+
+        sink.print("line 1\n");
+        sink.print("line 2\n");
+        sink.print("line 3\n");
+        sink.close();
+
+        assertEquals("line 1\nline 2\nline 3\n", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, droppedLines.sum());
+    }
+
+    @Test
+    void print_bufferFull_dropPolicy_linesDroppedAndCounted() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final LongAdder droppedLines = new LongAdder();
+        final AsyncLogSink sink = new AsyncLogSink(
+                2, LogOverflowPolicy.DROP, new PrintStream(outputStream, true, "UTF-8"), droppedLines);
+
+        sink.print("line 1\n");
+        sink.print("line 2\n");
+        sink.print("line 3\n");
+        sink.print("line 4\n");
+        sink.start().close();
+
+        assertEquals("line 1\nline 2\n", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(2, droppedLines.sum());
+    }
+
+    @Test
+    void print_blockPolicy_noLinesDropped() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final LongAdder droppedLines = new LongAdder();
+        final AsyncLogSink sink = new AsyncLogSink(
+                1, LogOverflowPolicy.BLOCK, new PrintStream(outputStream, true, "UTF-8"), droppedLines).start();
+
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sink.print("line " + i + "\n");
+            expected.append("line ").append(i).append("\n");
+        }
+        sink.close();
+
+        assertEquals(expected.toString(), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, droppedLines.sum());
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void print_threadDied_blockPolicy_neitherPrintNorCloseBlocks() throws Exception {
+        final CountDownLatch died = new CountDownLatch(1);
+        final LongAdder droppedLines = new LongAdder();
+        final PrintStream failing = new PrintStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+                died.countDown();
+                throw new IllegalStateException("console closed");
+            }
+        });
+        final AsyncLogSink sink = new AsyncLogSink(1, LogOverflowPolicy.BLOCK, failing, droppedLines).start();
+
+        sink.print("line 1\n");
+        assertTrue(died.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 10; i++) {
+            sink.print("line " + i + "\n");
+        }
+        sink.close();
+
+        assertTrue(droppedLines.sum() > 0);
+    }
+
+    @Test
+    void create_bufferSizeZero_exception() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AsyncLogSink(0, LogOverflowPolicy.DROP, System.out, new LongAdder()));
+    }
+}
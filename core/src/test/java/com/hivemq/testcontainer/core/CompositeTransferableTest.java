@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.images.builder.Transferable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompositeTransferableTest {
+
+    @Test
+    void transferTo_allTransferablesWrittenToTheirPaths() throws Exception {
+        final Map<String, Transferable> transferables = new LinkedHashMap<>();
+        transferables.put("/opt/hivemq/extensions/ext-1",
+                new PackagedExtension("ext-1", "key-1", new byte[]{1}, false, new byte[]{2}));
+        transferables.put("/opt/hivemq/extensions/ext-2",
+                new PackagedExtension("ext-2", "key-2", new byte[]{1}, false, new byte[]{2, 3}));
+        final CompositeTransferable compositeTransferable = new CompositeTransferable(transferables);
+
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (final TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(tar)) {
+            compositeTransferable.transferTo(tarArchiveOutputStream, "/");
+        }
+
+        final List<String> names = new ArrayList<>();
+        try (final TarArchiveInputStream tarArchiveInputStream =
+                     new TarArchiveInputStream(new ByteArrayInputStream(tar.toByteArray()))) {
+            TarArchiveEntry entry;
+            while ((entry = tarArchiveInputStream.getNextTarEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+
+        assertEquals(Arrays.asList(
+                "opt/hivemq/extensions/ext-1/",
+                "opt/hivemq/extensions/ext-1/hivemq-extension.xml",
+                "opt/hivemq/extensions/ext-1/extension.jar",
+                "opt/hivemq/extensions/ext-2/",
+                "opt/hivemq/extensions/ext-2/hivemq-extension.xml",
+                "opt/hivemq/extensions/ext-2/extension.jar"), names);
+        assertEquals(5, compositeTransferable.getSize());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContainerOutputDispatcherTest {
+
+    private final ContainerOutputDispatcher dispatcher = new ContainerOutputDispatcher();
+
+    @Test
+    void accept_fragmentedFrames_listenersReceiveCompleteLines() {
+        final List<String> lines = new ArrayList<>();
+        dispatcher.addListener(frame -> lines.add(frame.getUtf8String()));
+
+        accept(OutputFrame.OutputType.STDOUT, "line 1\nli");
+        accept(OutputFrame.OutputType.STDERR, "error 1\n");
+        accept(OutputFrame.OutputType.STDOUT, "ne 2\nline 3");
+        dispatcher.accept(OutputFrame.END);
+
+        assertEquals(Arrays.asList("line 1\n", "error 1\n", "line 2\n", "line 3"), lines);
+    }
+
+    @Test
+    void accept_fragmentedFrames_waitStrategyMatches() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy()
+                .withRegEx("(.*)Started HiveMQ in(.*)");
+        dispatcher.addListener(waitStrategy);
+
+        accept(OutputFrame.OutputType.STDOUT, "some line\nStarted Hi");
+        accept(OutputFrame.OutputType.STDOUT, "veMQ in 1234ms\n");
+
+        // returns immediately, because all patterns matched
+        waitStrategy.waitUntilReady();
+    }
+
+    @Test
+    void accept_fragmentedFrames_awaitLogCompleted() throws Exception {
+        final LogSubscriptions logSubscriptions = new LogSubscriptions();
+        dispatcher.addListener(logSubscriptions);
+        final CompletableFuture<OutputFrame> future =
+                logSubscriptions.subscribe(Pattern.compile("Extension \"my-extension\" version (.*) stopped successfully"),
+                        Duration.ofSeconds(10));
+
+        accept(OutputFrame.OutputType.STDOUT, "Extension \"my-exten");
+        accept(OutputFrame.OutputType.STDOUT, "sion\" version 1.0 stopped successfully.\nnext line\n");
+
+        assertEquals("Extension \"my-extension\" version 1.0 stopped successfully.\n", future.get().getUtf8String());
+    }
+
+    @Test
+    void accept_frameWithOffset_startsWithComparesRawBytes() {
+        final List<Boolean> matches = new ArrayList<>();
+        final byte[] prefix = "Listening".getBytes(StandardCharsets.UTF_8);
+        dispatcher.addListener(frame -> matches.add(frame.startsWith(prefix)));
+
+        accept(OutputFrame.OutputType.STDOUT, "Listen\nListening for transport\nListening");
+        dispatcher.accept(OutputFrame.END);
+
+        assertEquals(Arrays.asList(false, true, true), matches);
+    }
+
+    private void accept(final OutputFrame.OutputType type, final String output) {
+        dispatcher.accept(new OutputFrame(type, output.getBytes(StandardCharsets.UTF_8)));
+    }
+}
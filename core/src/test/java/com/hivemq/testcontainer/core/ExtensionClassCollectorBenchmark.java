@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the discovery of a generated 500 class extension with a cold and with a memoized class graph.
+ * <p>
+ * This is not a test and does not assert anything, so it is not part of the unit test run.
+ * It is started manually with the test runtime classpath, for example from the IDE, and prints the median times.
+ */
+class ExtensionClassCollectorBenchmark {
+
+    private static final int CLASS_COUNT = 500;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 50;
+
+    public static void main(final String[] args) throws Exception {
+        final File directory = HostWorkspace.temporaryDirectory("class-collector-benchmark");
+        try {
+            final ClassPool classPool = generateClasses(directory);
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                measure(classPool, directory);
+            }
+            final long[] cold = new long[ITERATIONS];
+            final long[] memoized = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                final long[] nanos = measure(classPool, directory);
+                cold[i] = nanos[0];
+                memoized[i] = nanos[1];
+            }
+            System.out.printf("Discovered %d classes in %d iterations: cold %.2f ms, memoized %.2f ms (median)%n",
+                    CLASS_COUNT, ITERATIONS, median(cold) / 1_000_000.0, median(memoized) / 1_000_000.0);
+        } finally {
+            HostWorkspace.delete(directory);
+        }
+    }
+
+    /**
+     * @return the nanoseconds of the first discovery with a new class loader and of the second discovery with the
+     * same class loader
+     */
+    private static long[] measure(final ClassPool classPool, final File directory) throws Exception {
+        final ClassLoader classLoader = new URLClassLoader(new URL[]{directory.toURI().toURL()});
+        final long[] nanos = new long[2];
+        for (int i = 0; i < nanos.length; i++) {
+            final long start = System.nanoTime();
+            ExtensionClassCollector.collect(
+                    classPool,
+                    classLoader,
+                    Collections.singletonList("benchmark.C0"),
+                    true,
+                    ExtensionClassCollector.packageFilter(Collections.emptyList(), Collections.emptyList()),
+                    ConcurrentHashMap.newKeySet());
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private static long median(final long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Writes the same binary tree of classes as {@link ExtensionClassCollectorTest} to the directory.
+     */
+    private static ClassPool generateClasses(final File directory) throws Exception {
+        final ClassPool generator = new ClassPool(true);
+        final CtClass[] classes = new CtClass[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            classes[i] = generator.makeClass("benchmark.C" + i);
+        }
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < CLASS_COUNT; child++) {
+                classes[i].addField(new CtField(classes[child], "field" + child, classes[i]));
+            }
+        }
+        for (final CtClass ctClass : classes) {
+            ctClass.writeFile(directory.getAbsolutePath());
+            ctClass.detach();
+        }
+
+        final ClassPool classPool = new ClassPool(true);
+        classPool.appendClassPath(directory.getAbsolutePath());
+        return classPool;
+    }
+}
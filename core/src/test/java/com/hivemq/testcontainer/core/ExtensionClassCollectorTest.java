@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtensionClassCollectorTest {
+
+    private static final int CLASS_COUNT = 500;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void packageFilter_defaultExclusions() {
+        final Predicate<String> filter =
+                ExtensionClassCollector.packageFilter(Collections.emptyList(), Collections.emptyList());
+
+        assertTrue(filter.test("com.example.MyClass"));
+        assertFalse(filter.test("java.lang.String"));
+        assertFalse(filter.test("javax.annotation.Nullable"));
+        assertFalse(filter.test("com.hivemq.extension.sdk.api.ExtensionMain"));
+    }
+
+    @Test
+    void packageFilter_includedAndExcludedPackages() {
+        final Predicate<String> filter = ExtensionClassCollector.packageFilter(
+                Collections.singletonList("com.example"), Collections.singletonList("com.example.internal."));
+
+        assertTrue(filter.test("com.example.MyClass"));
+        assertTrue(filter.test("com.example.sub.MyClass"));
+        assertFalse(filter.test("com.examples.MyClass"));
+        assertFalse(filter.test("com.example.internal.MyClass"));
+        assertFalse(filter.test("org.example.MyClass"));
+    }
+
+    @Test
+    void collect_transitive_allReachableClasses() throws Exception {
+        final ClassPool classPool = generateClasses("transitive");
+
+        final Set<String> classNames = ExtensionClassCollector.collect(
+                classPool,
+                classLoader(),
+                Collections.singletonList("transitive.C0"),
+                true,
+                defaultFilter(),
+                ConcurrentHashMap.newKeySet());
+
+        assertEquals(CLASS_COUNT, classNames.size());
+        assertTrue(classNames.contains("transitive.C" + (CLASS_COUNT - 1)));
+    }
+
+    @Test
+    void collect_notTransitive_onlyDirectReferences() throws Exception {
+        final ClassPool classPool = generateClasses("direct");
+
+        final Set<String> classNames = ExtensionClassCollector.collect(
+                classPool,
+                classLoader(),
+                Collections.singletonList("direct.C0"),
+                false,
+                defaultFilter(),
+                ConcurrentHashMap.newKeySet());
+
+        assertEquals(Arrays.asList("direct.C0", "direct.C1", "direct.C2"), Arrays.asList(classNames.toArray()));
+    }
+
+    @Test
+    void collect_filteredPackage_notFollowed() throws Exception {
+        final ClassPool classPool = generateClasses("filtered");
+
+        final Set<String> classNames = ExtensionClassCollector.collect(
+                classPool,
+                classLoader(),
+                Collections.singletonList("filtered.C0"),
+                true,
+                ExtensionClassCollector.packageFilter(
+                        Collections.singletonList("other"), Collections.emptyList()),
+                ConcurrentHashMap.newKeySet());
+
+        assertEquals(Collections.singleton("filtered.C0"), classNames);
+    }
+
+    @Test
+    void collect_unresolvableRoot_throws() {
+        assertThrows(NotFoundException.class, () -> ExtensionClassCollector.collect(
+                new ClassPool(true),
+                classLoader(),
+                Collections.singletonList("unknown.C0"),
+                true,
+                defaultFilter(),
+                ConcurrentHashMap.newKeySet()));
+    }
+
+    @Test
+    void collect_sameClassLoaderTwice_bytecodeReadOnce() throws Exception {
+        final ClassPool classPool = generateClasses("memoized");
+        final ClassLoader classLoader = classLoader();
+
+        final Set<String> firstScanned = ConcurrentHashMap.newKeySet();
+        final Set<String> first = ExtensionClassCollector.collect(
+                classPool, classLoader, Collections.singletonList("memoized.C0"), true, defaultFilter(), firstScanned);
+        final Set<String> secondScanned = ConcurrentHashMap.newKeySet();
+        final Set<String> second = ExtensionClassCollector.collect(
+                classPool, classLoader, Collections.singletonList("memoized.C0"), true, defaultFilter(), secondScanned);
+
+        assertEquals(CLASS_COUNT, first.size());
+        assertEquals(first, second);
+        assertEquals(CLASS_COUNT, firstScanned.size());
+        assertTrue(secondScanned.isEmpty());
+    }
+
+    @Test
+    void collect_otherClassLoader_bytecodeReadAgain() throws Exception {
+        final ClassPool classPool = generateClasses("scoped");
+
+        ExtensionClassCollector.collect(classPool, classLoader(), Collections.singletonList("scoped.C0"), true,
+                defaultFilter(), ConcurrentHashMap.newKeySet());
+        final Set<String> scanned = ConcurrentHashMap.newKeySet();
+        ExtensionClassCollector.collect(classPool, classLoader(), Collections.singletonList("scoped.C0"), true,
+                defaultFilter(), scanned);
+
+        assertEquals(CLASS_COUNT, scanned.size());
+    }
+
+    private static Predicate<String> defaultFilter() {
+        return ExtensionClassCollector.packageFilter(Collections.emptyList(), Collections.emptyList());
+    }
+
+    private ClassLoader classLoader() throws Exception {
+        return new URLClassLoader(new URL[]{tempDir.toURI().toURL()});
+    }
+
+    /**
+     * Writes a binary tree of classes to a temp directory, in which class {@code Ci} has fields of the types
+     * {@code C(2i+1)} and {@code C(2i+2)}.
+     */
+    private ClassPool generateClasses(final String packageName) throws Exception {
+        final ClassPool generator = new ClassPool(true);
+        final CtClass[] classes = new CtClass[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            classes[i] = generator.makeClass(packageName + ".C" + i);
+        }
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < CLASS_COUNT; child++) {
+                classes[i].addField(new CtField(classes[child], "field" + child, classes[i]));
+            }
+        }
+        for (final CtClass ctClass : classes) {
+            ctClass.writeFile(tempDir.getAbsolutePath());
+            ctClass.detach();
+        }
+
+        final ClassPool classPool = new ClassPool(true);
+        classPool.appendClassPath(tempDir.getAbsolutePath());
+        return classPool;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import com.hivemq.extension.sdk.api.ExtensionMain;
+import com.hivemq.testcontainer.util.MyExtension;
+import com.hivemq.testcontainer.util.MyExtensionWithSubclasses;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtensionPackagerTest {
+
+    @Test
+    void packageExtension_inMemory() throws Exception {
+        final PackagedExtension packagedExtension =
+                ExtensionPackager.packageExtension(extension("4.0", MyExtension.class), statistics -> {});
+
+        assertEquals("extension-1", packagedExtension.getId());
+        assertTrue(packagedExtension.getJar().length > 0);
+        assertTrue(new String(packagedExtension.getXml(), StandardCharsets.UTF_8).contains("<version>4.0</version>"));
+    }
+
+    @Test
+    void packageExtension_storedInCache() throws Exception {
+        final File extensionDir = awaitCached(extension("1.0", MyExtension.class));
+
+        assertEquals("extension-1", extensionDir.getName());
+        assertTrue(new File(extensionDir, "hivemq-extension.xml").exists());
+        assertTrue(new File(extensionDir, "extension.jar").exists());
+        assertFalse(new File(extensionDir, "DISABLED").exists());
+    }
+
+    @Test
+    void packageExtension_sameExtensionTwice_cachedExtensionReused() throws Exception {
+        final File extensionDir = awaitCached(extension("1.0", MyExtension.class));
+        final long lastModified = new File(extensionDir, "extension.jar").lastModified();
+        final AtomicReference<ExtensionPackagingStatistics> statistics = new AtomicReference<>();
+        final PackagedExtension second =
+                ExtensionPackager.packageExtension(extension("1.0", MyExtension.class), statistics::set);
+
+        assertTrue(statistics.get().isCached());
+        assertEquals(extensionDir, cachedExtensionDirectory(second));
+        assertEquals(lastModified, new File(extensionDir, "extension.jar").lastModified());
+    }
+
+    @Test
+    void packageExtension_differentDescriptorOrClasses_notReused() throws Exception {
+        final PackagedExtension extension =
+                ExtensionPackager.packageExtension(extension("1.0", MyExtension.class), statistics -> {});
+        final PackagedExtension otherVersion =
+                ExtensionPackager.packageExtension(extension("2.0", MyExtension.class), statistics -> {});
+        final PackagedExtension otherClass =
+                ExtensionPackager.packageExtension(extension("1.0", MyExtensionWithSubclasses.class), statistics -> {});
+
+        assertNotEquals(extension.getCacheKey(), otherVersion.getCacheKey());
+        assertNotEquals(extension.getCacheKey(), otherClass.getCacheKey());
+    }
+
+    @Test
+    void packageExtension_statisticsReported() throws Exception {
+        final AtomicReference<ExtensionPackagingStatistics> first = new AtomicReference<>();
+        ExtensionPackager.packageExtension(extension("3.0", MyExtensionWithSubclasses.class), first::set);
+        awaitCached(extension("3.0", MyExtensionWithSubclasses.class));
+        final AtomicReference<ExtensionPackagingStatistics> second = new AtomicReference<>();
+        ExtensionPackager.packageExtension(extension("3.0", MyExtensionWithSubclasses.class), second::set);
+
+        assertEquals("extension-1", first.get().getExtensionId());
+        assertTrue(first.get().getClassesPackaged() > 0);
+        assertEquals(first.get().getClassesPackaged(), second.get().getClassesPackaged());
+        assertTrue(second.get().isCached());
+        assertEquals(0, second.get().getBytesWritten());
+        assertEquals(0, second.get().getClassesScanned());
+    }
+
+    /**
+     * Packages the extension until the asynchronously stored cache entry is found.
+     */
+    private static File awaitCached(final HiveMQExtension extension) throws Exception {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            final PackagedExtension packagedExtension = ExtensionPackager.packageExtension(extension, statistics -> {});
+            final File extensionDir = cachedExtensionDirectory(packagedExtension);
+            if (extensionDir != null && new File(extensionDir, "extension.jar").exists()) {
+                return extensionDir;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "extension was not cached within 10 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    private static @Nullable File cachedExtensionDirectory(final PackagedExtension packagedExtension) {
+        final File cachedDir = HostWorkspace.getCached("extensions", packagedExtension.getCacheKey());
+        return cachedDir == null ? null : new File(cachedDir, packagedExtension.getId());
+    }
+
+    private static HiveMQExtension extension(
+            final String version,
+            final Class<? extends ExtensionMain> mainClass) {
+
+        return HiveMQExtension.builder()
+                .id("extension-1")
+                .name("my-extension")
+                .version(version)
+                .mainClass(mainClass)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradleHiveMQExtensionSupplierTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void builtExtensionZip_configurationCacheHit_newestZipFound() throws Exception {
+        final File directory = new File(tempDir, "build/hivemq-extension");
+        assertTrue(directory.mkdirs());
+        final File older = new File(directory, "my-extension-1.0.zip");
+        final File newer = new File(directory, "my-extension-1.1.zip");
+        assertTrue(older.createNewFile());
+        assertTrue(newer.createNewFile());
+        assertTrue(new File(directory, "my-extension-1.1.jar").createNewFile());
+        assertTrue(older.setLastModified(System.currentTimeMillis() - 60_000));
+
+        assertEquals(newer, GradleHiveMQExtensionSupplier.builtExtensionZip(tempDir));
+    }
+
+    @Test
+    void builtExtensionZip_noZip_exception() {
+        assertThrows(IllegalStateException.class, () -> GradleHiveMQExtensionSupplier.builtExtensionZip(tempDir));
+    }
+}
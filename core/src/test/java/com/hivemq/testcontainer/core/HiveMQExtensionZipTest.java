@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HiveMQExtensionZipTest {
+
+    private static final byte @NotNull [] XML =
+            "<hivemq-extension><id>my-extension</id></hivemq-extension>".getBytes(StandardCharsets.UTF_8);
+    private static final byte @NotNull [] JAR = {1, 2, 3};
+    private static final byte @NotNull [] CONFIG = "<config/>".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void constructor_extensionIdAndSizeRead() throws Exception {
+        final HiveMQExtensionZip extensionZip = new HiveMQExtensionZip(createDistributionZip());
+
+        assertEquals("my-extension", extensionZip.getExtensionId());
+        assertEquals(XML.length + JAR.length + CONFIG.length, extensionZip.getSize());
+    }
+
+    @Test
+    void constructor_noDescriptor_exception() throws Exception {
+        final File zip = new File(tempDir, "no-descriptor.zip");
+        try (final ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(zip))) {
+            zipOutputStream.putNextEntry(new ZipEntry("my-extension/extension.jar"));
+            zipOutputStream.write(JAR);
+        }
+
+        assertThrows(IllegalStateException.class, () -> new HiveMQExtensionZip(zip));
+    }
+
+    @Test
+    void transferTo_entriesStreamedBelowDestination() throws Exception {
+        final HiveMQExtensionZip extensionZip = new HiveMQExtensionZip(createDistributionZip());
+
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (final TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(tar)) {
+            extensionZip.transferTo(tarArchiveOutputStream, "/opt/hivemq/extensions/my-extension");
+        }
+
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (final TarArchiveInputStream tarArchiveInputStream =
+                     new TarArchiveInputStream(new ByteArrayInputStream(tar.toByteArray()))) {
+            TarArchiveEntry entry;
+            while ((entry = tarArchiveInputStream.getNextTarEntry()) != null) {
+                if (entry.isDirectory()) {
+                    assertEquals(040777, entry.getMode());
+                    entries.put(entry.getName(), null);
+                    continue;
+                }
+                assertEquals(0100777, entry.getMode());
+                final byte[] content = new byte[(int) entry.getSize()];
+                assertEquals(content.length, Math.max(0, tarArchiveInputStream.read(content)));
+                entries.put(entry.getName(), content);
+            }
+        }
+
+        assertEquals(Arrays.asList(
+                "opt/hivemq/extensions/my-extension/",
+                "opt/hivemq/extensions/my-extension/hivemq-extension.xml",
+                "opt/hivemq/extensions/my-extension/extension.jar",
+                "opt/hivemq/extensions/my-extension/conf/",
+                "opt/hivemq/extensions/my-extension/conf/config.xml"), Arrays.asList(entries.keySet().toArray()));
+        assertArrayEquals(XML, entries.get("opt/hivemq/extensions/my-extension/hivemq-extension.xml"));
+        assertArrayEquals(JAR, entries.get("opt/hivemq/extensions/my-extension/extension.jar"));
+        assertArrayEquals(CONFIG, entries.get("opt/hivemq/extensions/my-extension/conf/config.xml"));
+    }
+
+    /**
+     * Creates a distribution zip like the maven and gradle tooling, the conf directory has no own entry.
+     */
+    private @NotNull File createDistributionZip() throws Exception {
+        final File zip = new File(tempDir, "my-extension-1.0.0.zip");
+        try (final ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(zip))) {
+            zipOutputStream.putNextEntry(new ZipEntry("my-extension/"));
+            zipOutputStream.putNextEntry(new ZipEntry("my-extension/hivemq-extension.xml"));
+            zipOutputStream.write(XML);
+            zipOutputStream.putNextEntry(new ZipEntry("my-extension/extension.jar"));
+            zipOutputStream.write(JAR);
+            zipOutputStream.putNextEntry(new ZipEntry("my-extension/conf/config.xml"));
+            zipOutputStream.write(CONFIG);
+        }
+        return zip;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HiveMQImageBuilderTest {
+
+    private static final DockerImageName BASE_IMAGE = DockerImageName.parse("hivemq/hivemq-ce").withTag("latest");
+    private static final String BASE_IMAGE_ID = "sha256:1111";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void getImageName_sameInputs_sameName() throws Exception {
+        final File config = write("config.xml", "<hivemq/>");
+
+        final String first = new HiveMQImageBuilder(BASE_IMAGE)
+                .withHiveMQConfig(MountableFile.forHostPath(config.getAbsolutePath()))
+                .getImageName(BASE_IMAGE_ID);
+        final String second = new HiveMQImageBuilder(BASE_IMAGE)
+                .withHiveMQConfig(MountableFile.forHostPath(config.getAbsolutePath()))
+                .getImageName(BASE_IMAGE_ID);
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith("hivemq-testcontainer/hivemq/hivemq-ce:"));
+    }
+
+    @Test
+    void getImageName_changedContentOrBaseImageId_differentName() throws Exception {
+        final File config = write("config.xml", "<hivemq/>");
+        final String original = new HiveMQImageBuilder(BASE_IMAGE)
+                .withHiveMQConfig(MountableFile.forHostPath(config.getAbsolutePath()))
+                .getImageName(BASE_IMAGE_ID);
+
+        // same tag, but the image behind it changed
+        final String otherBaseImage = new HiveMQImageBuilder(BASE_IMAGE)
+                .withHiveMQConfig(MountableFile.forHostPath(config.getAbsolutePath()))
+                .getImageName("sha256:2222");
+        write("config.xml", "<hivemq></hivemq>");
+        final String otherContent = new HiveMQImageBuilder(BASE_IMAGE)
+                .withHiveMQConfig(MountableFile.forHostPath(config.getAbsolutePath()))
+                .getImageName(BASE_IMAGE_ID);
+
+        assertNotEquals(original, otherBaseImage);
+        assertNotEquals(original, otherContent);
+    }
+
+    @Test
+    void withLicense_fileEndingWrong_Exception() throws Exception {
+        final File license = write("license.wrong", "license");
+        final HiveMQImageBuilder builder = new HiveMQImageBuilder(BASE_IMAGE);
+
+        assertThrows(ContainerLaunchException.class,
+                () -> builder.withLicense(MountableFile.forHostPath(license.getAbsolutePath())));
+    }
+
+    private File write(final String name, final String content) throws Exception {
+        final File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
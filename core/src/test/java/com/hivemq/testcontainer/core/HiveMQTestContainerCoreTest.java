@@ -23,7 +23,9 @@ import org.testcontainers.utility.MountableFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -52,6 +54,22 @@ class HiveMQTestContainerCoreTest {
         assertThrows(ContainerLaunchException.class, () -> container.withExtension(mountableFile));
     }
 
+    @Test
+    void withExtension_supplier_notCalledBeforeStart() {
+        final AtomicBoolean called = new AtomicBoolean();
+        container.withExtension(() -> {
+            called.set(true);
+            return MountableFile.forHostPath("/this/does/not/exist");
+        });
+        assertFalse(called.get());
+    }
+
+    @Test
+    void withReuse_stateResetNotAdded() {
+        container.withReuse(true);
+        assertThrows(IllegalStateException.class, container::resetState);
+    }
+
     @Test
     void withLicense_fileDoesNotExist_Exception() {
         final MountableFile mountableFile = MountableFile.forHostPath("/this/does/not/exist");
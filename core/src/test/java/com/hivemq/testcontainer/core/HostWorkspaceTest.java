@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostWorkspaceTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void temporaryDirectory_deleted() throws Exception {
+        final File directory = HostWorkspace.temporaryDirectory("test");
+        assertTrue(directory.isDirectory());
+
+        HostWorkspace.delete(directory);
+
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    void cached_writtenOnce() throws Exception {
+        final String key = UUID.randomUUID().toString();
+        final AtomicInteger writes = new AtomicInteger();
+        final HostWorkspace.DirectoryWriter writer = directory -> {
+            writes.incrementAndGet();
+            Files.write(new File(directory, "file").toPath(), new byte[]{1});
+        };
+
+        assertNull(HostWorkspace.getCached("test", key));
+        final File first = HostWorkspace.cached("test", key, writer);
+        final File second = HostWorkspace.cached("test", key, writer);
+
+        assertEquals(1, writes.get());
+        assertEquals(first, second);
+        assertEquals(first, HostWorkspace.getCached("test", key));
+        assertTrue(new File(first, "file").exists());
+    }
+
+    @Test
+    void evict_overMaxSize_leastRecentlyUsedEvicted() throws Exception {
+        final File older = cacheEntry(100);
+        final File newer = cacheEntry(100);
+        assertTrue(older.setLastModified(System.currentTimeMillis() - 3_600_000));
+        assertTrue(newer.setLastModified(System.currentTimeMillis() - 1_800_000));
+
+        evict(100);
+
+        assertFalse(older.exists());
+        assertTrue(newer.exists());
+    }
+
+    @Test
+    void evict_inUse_notEvicted() throws Exception {
+        final File entry = cacheEntry(100);
+        assertTrue(entry.setLastModified(System.currentTimeMillis() - 3_600_000));
+        final File session = new File(tempDir, "sessions/" + UUID.randomUUID());
+        assertTrue(new File(session, "in-use/test").mkdirs());
+        assertTrue(new File(session, ".lock").createNewFile());
+        assertTrue(new File(session, "in-use/test/" + entry.getName()).createNewFile());
+
+        evict(0);
+
+        assertTrue(entry.exists());
+    }
+
+    @Test
+    void evict_recentlyUsed_notEvicted() throws Exception {
+        final File entry = cacheEntry(100);
+
+        evict(0);
+
+        assertTrue(entry.exists());
+    }
+
+    private void evict(final long maxSize) {
+        System.setProperty(HostWorkspace.MAX_CACHE_SIZE_PROPERTY, Long.toString(maxSize));
+        try {
+            HostWorkspace.evict(tempDir);
+        } finally {
+            System.clearProperty(HostWorkspace.MAX_CACHE_SIZE_PROPERTY);
+        }
+    }
+
+    private File cacheEntry(final int size) throws Exception {
+        final File entry = new File(tempDir, "cache/test/" + UUID.randomUUID());
+        assertTrue(entry.mkdirs());
+        Files.write(new File(entry, "file").toPath(), new byte[size]);
+        return entry;
+    }
+}
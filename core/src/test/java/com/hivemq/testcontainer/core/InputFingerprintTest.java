@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputFingerprintTest {
+
+    @TempDir
+    File projectDirectory;
+
+    @Test
+    void of_unchangedInputs_sameHash() throws Exception {
+        final List<File> inputs = createProject();
+
+        final String first = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+        final String second = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void of_changedContent_differentHash() throws Exception {
+        final List<File> inputs = createProject();
+        final String first = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+
+        write("src/main/java/Main.java", "class Main { int changed; }");
+
+        assertNotEquals(first, InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap()));
+    }
+
+    @Test
+    void of_addedFile_differentHash() throws Exception {
+        final List<File> inputs = createProject();
+        final String first = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+
+        write("src/main/resources/new.txt", "new");
+
+        assertNotEquals(first, InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap()));
+    }
+
+    @Test
+    void of_changedValue_differentHash() throws Exception {
+        final List<File> inputs = createProject();
+
+        assertNotEquals(
+                InputFingerprint.of(projectDirectory, inputs, Collections.singletonMap("key", "value1")),
+                InputFingerprint.of(projectDirectory, inputs, Collections.singletonMap("key", "value2")));
+    }
+
+    @Test
+    void of_sameSizeAndModificationTime_contentNotReadAgain() throws Exception {
+        final List<File> inputs = createProject();
+        final File main = new File(projectDirectory, "src/main/java/Main.java");
+        final long modified = main.lastModified();
+        final String first = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+
+        write("src/main/java/Main.java", "class Niam {}");
+        assertTrue(main.setLastModified(modified));
+
+        assertEquals(first, InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap()));
+    }
+
+    @Test
+    void of_missingInput_hashed() throws Exception {
+        final List<File> inputs = Arrays.asList(new File(projectDirectory, "pom.xml"), new File(projectDirectory, "src"));
+
+        final String missing = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+        createProject();
+
+        assertNotEquals(missing, InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap()));
+    }
+
+    @Test
+    void projectInputs_excludedNamesSkipped() throws Exception {
+        createProject();
+        write("target/classes/Main.class", "class");
+        write("assembly.xml", "<assembly/>");
+
+        final List<File> inputs = InputFingerprint.projectInputs(projectDirectory, "target");
+        final String first = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+        write("target/classes/Main.class", "changed");
+        final String unchanged = InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap());
+        write("assembly.xml", "<assembly></assembly>");
+
+        assertEquals(first, unchanged);
+        assertNotEquals(first, InputFingerprint.of(projectDirectory, inputs, Collections.emptyMap()));
+    }
+
+    private List<File> createProject() throws Exception {
+        write("pom.xml", "<project/>");
+        write("src/main/java/Main.java", "class Main {}");
+        write("src/main/resources/resource.txt", "resource");
+        final long old = System.currentTimeMillis() - 60_000;
+        for (final String path : Arrays.asList("pom.xml", "src/main/java/Main.java", "src/main/resources/resource.txt")) {
+            assertTrue(new File(projectDirectory, path).setLastModified(old));
+        }
+        return Arrays.asList(new File(projectDirectory, "pom.xml"), new File(projectDirectory, "src"));
+    }
+
+    private void write(final String path, final String content) throws Exception {
+        final File file = new File(projectDirectory, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
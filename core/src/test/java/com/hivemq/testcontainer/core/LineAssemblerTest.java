@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LineAssemblerTest {
+
+    private final LineAssembler lineAssembler = new LineAssembler();
+    private final List<String> lines = new ArrayList<>();
+
+    @Test
+    void append_oneLinePerFrame() {
+        append("line 1\n");
+        append("line 2\n");
+
+        assertEquals(Arrays.asList("line 1\n", "line 2\n"), lines);
+    }
+
+    @Test
+    void append_lineSplitAcrossFrames() {
+        append("Started Hive");
+        append("MQ in ");
+        append("1234ms\n");
+
+        assertEquals(Arrays.asList("Started HiveMQ in 1234ms\n"), lines);
+    }
+
+    @Test
+    void append_severalLinesInOneFrame() {
+        append("line 1\nline 2\nline 3\n");
+
+        assertEquals(Arrays.asList("line 1\n", "line 2\n", "line 3\n"), lines);
+    }
+
+    @Test
+    void append_mergedAndSplitLines() {
+        append("line 1\nline");
+        append(" 2\nline 3\nli");
+        append("ne 4\n");
+
+        assertEquals(Arrays.asList("line 1\n", "line 2\n", "line 3\n", "line 4\n"), lines);
+    }
+
+    @Test
+    void append_byteByByte() {
+        final String output = "Extension \"my-extension\" version 1.0 started successfully.\nStarted HiveMQ in 1234ms\n";
+        for (final byte b : output.getBytes(StandardCharsets.UTF_8)) {
+            lineAssembler.append(new byte[]{b}, this::onLine);
+        }
+
+        assertEquals(Arrays.asList(
+                "Extension \"my-extension\" version 1.0 started successfully.\n",
+                "Started HiveMQ in 1234ms\n"), lines);
+    }
+
+    @Test
+    void append_multiByteCharacterSplitAcrossFrames() {
+        final byte[] bytes = "gr\u00fc\u00dfe\n".getBytes(StandardCharsets.UTF_8);
+        lineAssembler.append(Arrays.copyOfRange(bytes, 0, 3), this::onLine);
+        lineAssembler.append(Arrays.copyOfRange(bytes, 3, bytes.length), this::onLine);
+
+        assertEquals(Arrays.asList("gr\u00fc\u00dfe\n"), lines);
+    }
+
+    @Test
+    void append_lineLongerThanBuffer() {
+        final StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longLine.append("0123456789");
+            append("0123456789");
+        }
+        append("\n");
+
+        assertEquals(Arrays.asList(longLine + "\n"), lines);
+    }
+
+    @Test
+    void flush_incompleteLine() {
+        append("line 1\nincomplete");
+        lineAssembler.flush(this::onLine);
+        lineAssembler.flush(this::onLine);
+
+        assertEquals(Arrays.asList("line 1\n", "incomplete"), lines);
+    }
+
+    private void append(final String output) {
+        lineAssembler.append(output.getBytes(StandardCharsets.UTF_8), this::onLine);
+    }
+
+    private void onLine(final byte[] bytes, final int offset, final int length) {
+        lines.add(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+}
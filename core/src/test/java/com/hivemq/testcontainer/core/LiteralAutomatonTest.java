@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LiteralAutomatonTest {
+
+    @Test
+    void scan_overlappingLiterals_allFound() {
+        final LiteralAutomaton automaton = automaton("he", "she", "his", "hers");
+
+        assertEquals(bits(0, 1, 3), scan(automaton, "ushers"));
+        assertEquals(bits(2), scan(automaton, "this"));
+        assertEquals(bits(), scan(automaton, "nothing"));
+    }
+
+    @Test
+    void scan_literalIsSuffixOfOtherLiteral_found() {
+        final LiteralAutomaton automaton = automaton("abcd", "bc");
+
+        assertEquals(bits(1), scan(automaton, "xabcx"));
+        assertEquals(bits(0, 1), scan(automaton, "xabcdx"));
+    }
+
+    @Test
+    void scan_offsetAndLength_onlyRangeScanned() {
+        final LiteralAutomaton automaton = automaton("started");
+        final byte[] bytes = "started stopped".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(bits(), automaton.scan(bytes, 1, bytes.length - 1));
+        assertEquals(bits(0), automaton.scan(bytes, 0, 7));
+    }
+
+    @Test
+    void index_onlyCandidatesReturned() {
+        final LiteralPatternIndex<Pattern> index = LiteralPatternIndex.of(Arrays.asList(
+                Pattern.compile("(.*)Started HiveMQ in(.*)"),
+                Pattern.compile("(.*)Extension \"a\" version (.*) started successfully(.*)"),
+                Pattern.compile("(.*)")), pattern -> pattern);
+        final byte[] bytes = "Started HiveMQ in 123ms".getBytes(StandardCharsets.UTF_8);
+
+        final StringBuilder candidates = new StringBuilder();
+        index.forEachCandidate(bytes, 0, bytes.length, pattern -> candidates.append(pattern.pattern()).append(';'));
+
+        assertEquals("(.*);(.*)Started HiveMQ in(.*);", candidates.toString());
+    }
+
+    private static LiteralAutomaton automaton(final String... literals) {
+        return new LiteralAutomaton(Arrays.asList(
+                Arrays.stream(literals).map(literal -> literal.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new)));
+    }
+
+    private static BitSet scan(final LiteralAutomaton automaton, final String input) {
+        final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return automaton.scan(bytes, 0, bytes.length);
+    }
+
+    private static BitSet bits(final int... indices) {
+        final BitSet bitSet = new BitSet();
+        for (final int index : indices) {
+            bitSet.set(index);
+        }
+        return bitSet;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSubscriptionsTest {
+
+    private final LogSubscriptions logSubscriptions = new LogSubscriptions();
+
+    @Test
+    void subscribe_matchingOutput_completed() throws Exception {
+        final CompletableFuture<OutputFrame> future =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofSeconds(10));
+
+        logSubscriptions.onOutput(frame("Some unrelated log line\n"));
+        assertFalse(future.isDone());
+
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+        assertEquals("Started HiveMQ in 1234ms\n", future.get(10, TimeUnit.SECONDS).getUtf8String());
+    }
+
+    @Test
+    void subscribe_samePatternTwice_bothCompleted() throws Exception {
+        final Pattern pattern = Pattern.compile("Extension \"my-extension\" version (.*) started successfully");
+        final CompletableFuture<OutputFrame> first = logSubscriptions.subscribe(pattern, Duration.ofSeconds(10));
+        final CompletableFuture<OutputFrame> second = logSubscriptions.subscribe(pattern, Duration.ofSeconds(10));
+
+        logSubscriptions.onOutput(frame("Extension \"my-extension\" version 1.0 started successfully.\n"));
+
+        assertNotNull(first.get(10, TimeUnit.SECONDS));
+        assertNotNull(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void subscribe_matchedTwice_completedWithFirstMatch() throws Exception {
+        final CompletableFuture<OutputFrame> future =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofSeconds(10));
+
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+        logSubscriptions.onOutput(frame("Started HiveMQ in 5678ms\n"));
+
+        assertEquals("Started HiveMQ in 1234ms\n", future.get(10, TimeUnit.SECONDS).getUtf8String());
+    }
+
+    @Test
+    void subscribe_noMatchingOutput_timeout() {
+        final CompletableFuture<OutputFrame> future =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofMillis(10));
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof TimeoutException);
+
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void subscribe_cancelled_notCompletedByLaterOutput() throws Exception {
+        final CompletableFuture<OutputFrame> cancelled =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofSeconds(10));
+        cancelled.cancel(false);
+        final CompletableFuture<OutputFrame> other =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofSeconds(10));
+
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+
+        assertNotNull(other.get(10, TimeUnit.SECONDS));
+        assertTrue(cancelled.isCancelled());
+    }
+
+    @Test
+    void subscribe_afterOtherCompleted_matchedWithNextFrame() throws Exception {
+        final CompletableFuture<OutputFrame> first =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofSeconds(10));
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+        first.get(10, TimeUnit.SECONDS);
+
+        final CompletableFuture<OutputFrame> second =
+                logSubscriptions.subscribe(Pattern.compile("stopped successfully"), Duration.ofSeconds(10));
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+        assertFalse(second.isDone());
+
+        logSubscriptions.onOutput(frame("Extension \"my-extension\" version 1.0 stopped successfully.\n"));
+        assertNotNull(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void subscribe_blockingCallback_outputNotStalled() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<OutputFrame> blocking =
+                logSubscriptions.subscribe(Pattern.compile("Started HiveMQ in"), Duration.ofSeconds(10));
+        final CompletableFuture<Void> callback = blocking.thenRun(() -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final CompletableFuture<OutputFrame> next =
+                logSubscriptions.subscribe(Pattern.compile("stopped successfully"), Duration.ofSeconds(10));
+
+        logSubscriptions.onOutput(frame("Started HiveMQ in 1234ms\n"));
+        logSubscriptions.onOutput(frame("Extension \"my-extension\" version 1.0 stopped successfully.\n"));
+
+        assertNotNull(next.get(10, TimeUnit.SECONDS));
+        assertFalse(callback.isDone());
+        release.countDown();
+        callback.get(10, TimeUnit.SECONDS);
+    }
+
+    private static ContainerOutputFrame frame(final String line) {
+        final ContainerOutputDispatcher dispatcher = new ContainerOutputDispatcher();
+        final AtomicReference<ContainerOutputFrame> frame = new AtomicReference<>();
+        dispatcher.addListener(frame::set);
+        dispatcher.accept(new OutputFrame(OutputFrame.OutputType.STDOUT, line.getBytes(StandardCharsets.UTF_8)));
+        dispatcher.accept(OutputFrame.END);
+        return frame.get();
+    }
+}
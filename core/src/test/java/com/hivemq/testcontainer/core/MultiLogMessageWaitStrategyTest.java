@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiLogMessageWaitStrategyTest {
+
+    @Test
+    void matches_noRegEx_true() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy();
+        assertTrue(waitStrategy.matches(frame("anything")));
+    }
+
+    @Test
+    void matches_regExWithoutLiteral_matched() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy()
+                .withRegEx("(.*)[0-9]+ms(.*)");
+
+        assertFalse(waitStrategy.matches(frame("Some unrelated log line\n")));
+        assertTrue(waitStrategy.matches(frame("Started HiveMQ in 1234ms\n")));
+    }
+
+    @Test
+    void matches_allRegExMatchedInDifferentFrames_true() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy()
+                .withRegEx("(.*)Started HiveMQ in(.*)")
+                .withRegEx("(.*)Extension \"my-extension\" version (.*) started successfully(.*)");
+
+        assertFalse(waitStrategy.matches(frame("2021-01-01 INFO  - Extension \"my-extension\" version 1.0 started successfully.\n")));
+        assertFalse(waitStrategy.matches(frame("2021-01-01 INFO  - Some unrelated log line\n")));
+        assertTrue(waitStrategy.matches(frame("2021-01-01 INFO  - Started HiveMQ in 1234ms\n")));
+    }
+
+    @Test
+    void onOutput_multiLineOutput_matchedLine() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy()
+                .withRegEx("(.*)Started HiveMQ in(.*)");
+        final ContainerOutputDispatcher dispatcher = new ContainerOutputDispatcher();
+        dispatcher.addListener(waitStrategy);
+
+        dispatcher.accept(new OutputFrame(OutputFrame.OutputType.STDOUT,
+                "first line\nStarted HiveMQ in 1234ms\nlast line\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(waitStrategy.matches(frame("last line\n")));
+    }
+
+    @Test
+    void reset_regExMustMatchAgain() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy()
+                .withRegEx("(.*)Started HiveMQ in(.*)");
+
+        assertTrue(waitStrategy.matches(frame("Started HiveMQ in 1234ms\n")));
+        waitStrategy.reset();
+        assertFalse(waitStrategy.matches(frame("Some unrelated log line\n")));
+        assertTrue(waitStrategy.matches(frame("Started HiveMQ in 1234ms\n")));
+    }
+
+    @Test
+    void withRegEx_sameRegExTwice_onlyMatchedOnce() {
+        final MultiLogMessageWaitStrategy waitStrategy = new MultiLogMessageWaitStrategy()
+                .withRegEx("(.*)Started HiveMQ in(.*)")
+                .withRegEx("(.*)Started HiveMQ in(.*)");
+
+        assertTrue(waitStrategy.matches(frame("Started HiveMQ in 1234ms\n")));
+    }
+
+    private static ContainerOutputFrame frame(final String line) {
+        final ContainerOutputDispatcher dispatcher = new ContainerOutputDispatcher();
+        final AtomicReference<ContainerOutputFrame> frame = new AtomicReference<>();
+        dispatcher.addListener(frame::set);
+        dispatcher.accept(new OutputFrame(OutputFrame.OutputType.STDOUT, line.getBytes(StandardCharsets.UTF_8)));
+        dispatcher.accept(OutputFrame.END);
+        return frame.get();
+    }
+}
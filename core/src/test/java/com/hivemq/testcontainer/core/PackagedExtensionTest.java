@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PackagedExtensionTest {
+
+    @Test
+    void transferTo_extensionDirectoryWritten() throws Exception {
+        final byte[] xml = "<hivemq-extension/>".getBytes(StandardCharsets.UTF_8);
+        final byte[] jar = {1, 2, 3};
+        final PackagedExtension packagedExtension = new PackagedExtension("my-extension", "key", xml, true, jar);
+
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (final TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(tar)) {
+            packagedExtension.transferTo(tarArchiveOutputStream, "/opt/hivemq/extensions/my-extension");
+        }
+
+        final List<String> names = new ArrayList<>();
+        try (final TarArchiveInputStream tarArchiveInputStream =
+                     new TarArchiveInputStream(new ByteArrayInputStream(tar.toByteArray()))) {
+            TarArchiveEntry entry;
+            while ((entry = tarArchiveInputStream.getNextTarEntry()) != null) {
+                names.add(entry.getName());
+                if (entry.isDirectory()) {
+                    assertEquals(040777, entry.getMode());
+                    continue;
+                }
+                assertEquals(0100777, entry.getMode());
+                final byte[] content = new byte[(int) entry.getSize()];
+                assertEquals(content.length, Math.max(0, tarArchiveInputStream.read(content)));
+                if (entry.getName().endsWith("extension.jar")) {
+                    assertArrayEquals(jar, content);
+                }
+            }
+        }
+
+        assertEquals(Arrays.asList(
+                "opt/hivemq/extensions/my-extension/",
+                "opt/hivemq/extensions/my-extension/hivemq-extension.xml",
+                "opt/hivemq/extensions/my-extension/extension.jar",
+                "opt/hivemq/extensions/my-extension/DISABLED"), names);
+        assertEquals(xml.length + jar.length, packagedExtension.getSize());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelStartupTest {
+
+    @Test
+    void startAll_allSucceed_startedConcurrently() throws Exception {
+        final CountDownLatch bothStarting = new CountDownLatch(2);
+        final TestStartable first = new TestStartable(() -> awaitOther(bothStarting));
+        final TestStartable second = new TestStartable(() -> awaitOther(bothStarting));
+
+        ParallelStartup.startAll(first, second).get(10, TimeUnit.SECONDS);
+
+        assertTrue(first.started);
+        assertTrue(second.started);
+        assertFalse(first.stopped);
+        assertFalse(second.stopped);
+    }
+
+    @Test
+    void startAll_oneFails_failsWithoutWaitingForOthers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final IllegalStateException failure = new IllegalStateException("failed");
+        final TestStartable slow = new TestStartable(() -> await(release));
+        final TestStartable failing = new TestStartable(() -> {
+            throw failure;
+        });
+
+        final CompletableFuture<Void> future = ParallelStartup.startAll(slow, failing);
+
+        final ExecutionException exception =
+                assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertSame(failure, exception.getCause());
+        assertFalse(slow.stopped);
+
+        release.countDown();
+        assertTrue(slow.stoppedLatch.await(10, TimeUnit.SECONDS));
+        assertFalse(failing.stopped);
+    }
+
+    @Test
+    void startAll_noContainers_completesImmediately() {
+        assertTrue(ParallelStartup.startAll().isDone());
+    }
+
+    private static void awaitOther(final @NotNull CountDownLatch latch) {
+        latch.countDown();
+        await(latch);
+    }
+
+    private static void await(final @NotNull CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class TestStartable implements Startable {
+
+        private final @NotNull Runnable onStart;
+        private final @NotNull CountDownLatch stoppedLatch = new CountDownLatch(1);
+        private volatile boolean started;
+        private volatile boolean stopped;
+
+        TestStartable(final @NotNull Runnable onStart) {
+            this.onStart = onStart;
+        }
+
+        @Override
+        public void start() {
+            onStart.run();
+            started = true;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+            stoppedLatch.countDown();
+        }
+    }
+}
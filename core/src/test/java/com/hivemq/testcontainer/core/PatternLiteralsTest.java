@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PatternLiteralsTest {
+
+    @Test
+    void requiredLiteral_waitForExtensionPattern() {
+        assertEquals("Extension \"my-extension\" version ", PatternLiterals.requiredLiteral(
+                Pattern.compile("(.*)Extension \"my-extension\" version (.*) started successfully(.*)")));
+    }
+
+    @Test
+    void requiredLiteral_startedPattern() {
+        assertEquals("Started HiveMQ in", PatternLiterals.requiredLiteral(Pattern.compile("(.*)Started HiveMQ in(.*)")));
+    }
+
+    @Test
+    void requiredLiteral_escapedCharacters() {
+        assertEquals("a.b(c)", PatternLiterals.requiredLiteral(Pattern.compile("\\d+a\\.b\\(c\\)")));
+    }
+
+    @Test
+    void requiredLiteral_quoted() {
+        assertEquals("a.b*c", PatternLiterals.requiredLiteral(Pattern.compile(Pattern.quote("a.b*c") + ".*")));
+    }
+
+    @Test
+    void requiredLiteral_optionalCharacterRemoved() {
+        assertEquals("abc", PatternLiterals.requiredLiteral(Pattern.compile("abcd?e")));
+        assertEquals("abc", PatternLiterals.requiredLiteral(Pattern.compile("abcd*e")));
+        assertEquals("abc", PatternLiterals.requiredLiteral(Pattern.compile("abcd{0,2}e")));
+        assertEquals("abcd", PatternLiterals.requiredLiteral(Pattern.compile("abcd+e")));
+    }
+
+    @Test
+    void requiredLiteral_characterClassesAndGroupsSkipped() {
+        assertEquals("started", PatternLiterals.requiredLiteral(Pattern.compile("[a-z]+started(foo|bar)?x")));
+    }
+
+    @Test
+    void requiredLiteral_literalFlag() {
+        assertEquals("(.*)", PatternLiterals.requiredLiteral(Pattern.compile("(.*)", Pattern.LITERAL)));
+    }
+
+    @Test
+    void requiredLiteral_literalFlagCaseInsensitive_noLiteral() {
+        assertNull(PatternLiterals.requiredLiteral(
+                Pattern.compile("Started", Pattern.LITERAL | Pattern.CASE_INSENSITIVE)));
+    }
+
+    @Test
+    void requiredLiteral_noLiteral() {
+        assertNull(PatternLiterals.requiredLiteral(Pattern.compile("(.*)")));
+        assertNull(PatternLiterals.requiredLiteral(Pattern.compile("foo|bar")));
+        assertNull(PatternLiterals.requiredLiteral(Pattern.compile("started", Pattern.CASE_INSENSITIVE)));
+        assertNull(PatternLiterals.requiredLiteral(Pattern.compile("(?i)started")));
+        assertNull(PatternLiterals.requiredLiteral(Pattern.compile("\\x41BC")));
+        assertNull(PatternLiterals.requiredLiteral(Pattern.compile("(a)\\1")));
+    }
+}
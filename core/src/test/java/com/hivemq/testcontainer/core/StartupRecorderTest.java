@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StartupRecorderTest {
+
+    private final StartupRecorder recorder = new StartupRecorder(new TickingClock());
+    private final ContainerOutputDispatcher dispatcher = new ContainerOutputDispatcher();
+
+    StartupRecorderTest() {
+        dispatcher.addListener(recorder);
+    }
+
+    @Test
+    void finish_hostAndBrokerPhases_recordedInOrder() {
+        recorder.begin();
+        recorder.host(StartupReport.CONFIGURED);
+        recorder.host(StartupReport.CREATED);
+        log("2021-01-01 00:00:00,000 INFO  - Starting HiveMQ Community Edition Server");
+        log("2021-01-01 00:00:00,100 INFO  - Starting with file persistence mode.");
+        log("2021-01-01 00:00:00,200 INFO  - Extension \"My Extension\" version 1.0.0 started successfully.");
+        log("2021-01-01 00:00:00,300 INFO  - Started HiveMQ in 1234ms");
+        recorder.host(StartupReport.READY);
+
+        final StartupReport report = recorder.finish();
+
+        assertEquals(Arrays.asList(
+                StartupReport.START_REQUESTED,
+                StartupReport.CONFIGURED,
+                StartupReport.CREATED,
+                StartupReport.BROKER_JVM_STARTED,
+                StartupReport.BROKER_PERSISTENCE_INITIALIZATION,
+                StartupReport.BROKER_EXTENSION_STARTED + "My Extension",
+                StartupReport.BROKER_STARTED,
+                StartupReport.READY), names(report));
+        assertEquals(StartupReport.Source.BROKER, report.getPhase(StartupReport.BROKER_STARTED).getSource());
+        assertEquals(StartupReport.Source.HOST, report.getPhase(StartupReport.READY).getSource());
+        assertEquals(Duration.ofMillis(1234), report.getBrokerReportedStartup());
+        assertEquals(Duration.ofMillis(70), report.getTotal());
+    }
+
+    @Test
+    void finish_linesAfterStarted_notParsed() {
+        recorder.begin();
+        log("Started HiveMQ in 1234ms");
+        log("Extension \"Late Extension\" version 1.0.0 started successfully.");
+
+        final StartupReport report = recorder.finish();
+
+        assertEquals(Arrays.asList(StartupReport.START_REQUESTED, StartupReport.BROKER_STARTED), names(report));
+    }
+
+    @Test
+    void begin_secondStart_previousPhasesDiscarded() {
+        recorder.begin();
+        log("Started HiveMQ in 1234ms");
+        recorder.finish();
+
+        recorder.begin();
+        recorder.host(StartupReport.READY);
+        final StartupReport report = recorder.finish();
+
+        assertEquals(Arrays.asList(StartupReport.START_REQUESTED, StartupReport.READY), names(report));
+        assertNull(report.getBrokerReportedStartup());
+    }
+
+    @Test
+    void onOutput_notStarted_ignored() {
+        log("Started HiveMQ in 1234ms");
+
+        recorder.begin();
+        final StartupReport report = recorder.finish();
+
+        assertEquals(Arrays.asList(StartupReport.START_REQUESTED), names(report));
+    }
+
+    @Test
+    void onOutput_lineOfNoPhase_notDecoded() {
+        recorder.begin();
+        final byte[] bytes = "2021-01-01 00:00:00,000 INFO  - some other line\n".getBytes(StandardCharsets.UTF_8);
+        recorder.onOutput(new ContainerOutputFrame(OutputFrame.OutputType.STDOUT, bytes, 0, bytes.length) {
+            @Override
+            @NotNull String getUtf8String() {
+                throw new AssertionError("decoded");
+            }
+        });
+
+        assertEquals(Arrays.asList(StartupReport.START_REQUESTED), names(recorder.finish()));
+    }
+
+    private void log(final @NotNull String line) {
+        dispatcher.accept(new OutputFrame(OutputFrame.OutputType.STDOUT, (line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static @NotNull List<String> names(final @NotNull StartupReport report) {
+        return report.getPhases().stream().map(StartupReport.Phase::getName).collect(Collectors.toList());
+    }
+
+    private static class TickingClock extends Clock {
+
+        private Instant instant = Instant.EPOCH;
+
+        @Override
+        public @NotNull ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public @NotNull Clock withZone(final @NotNull ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public @NotNull Instant instant() {
+            instant = instant.plusMillis(10);
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WithoutPrepackagedExtensionsImageTest {
+
+    @Test
+    void imageName_sameRemovalsInAnyOrder_sameName() {
+        final String first = WithoutPrepackagedExtensionsImage.imageName(
+                "hivemq/hivemq4", "sha256:1", Arrays.asList("hivemq-kafka-extension", "hivemq-allow-all-extension"));
+        final String second = WithoutPrepackagedExtensionsImage.imageName(
+                "hivemq/hivemq4", "sha256:1", Arrays.asList("hivemq-allow-all-extension", "hivemq-kafka-extension"));
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith("hivemq-testcontainer/hivemq/hivemq4-without-extensions:"));
+    }
+
+    @Test
+    void imageName_differentRemovalsOrBaseImage_differentName() {
+        final String name = WithoutPrepackagedExtensionsImage.imageName(
+                "hivemq/hivemq4", "sha256:1", Collections.singletonList("hivemq-kafka-extension"));
+
+        assertNotEquals(name, WithoutPrepackagedExtensionsImage.imageName(
+                "hivemq/hivemq4", "sha256:2", Collections.singletonList("hivemq-kafka-extension")));
+        assertNotEquals(name, WithoutPrepackagedExtensionsImage.imageName(
+                "hivemq/hivemq4", "sha256:1", Collections.singletonList("hivemq-allow-all-extension")));
+        assertNotEquals(name, WithoutPrepackagedExtensionsImage.imageName("hivemq/hivemq4", "sha256:1", null));
+        assertNotEquals(WithoutPrepackagedExtensionsImage.imageName("hivemq/hivemq4", "sha256:1", null),
+                WithoutPrepackagedExtensionsImage.imageName("hivemq/hivemq4", "sha256:1", Collections.emptyList()));
+    }
+}
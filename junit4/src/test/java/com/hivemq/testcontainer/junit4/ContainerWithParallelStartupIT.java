@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit4;
+
+import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
+import org.junit.Test;
+
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ContainerWithParallelStartupIT {
+
+    @Test(timeout = 200_000)
+    public void test_startAsync() throws Exception {
+        final HiveMQTestContainerRule rule = new HiveMQTestContainerRule();
+
+        assertSame(rule, rule.startAsync().get());
+        connect(rule.getMqttPort());
+        rule.stop();
+    }
+
+    @Test(timeout = 200_000)
+    public void test_startAll() {
+        final HiveMQTestContainerRule first = new HiveMQTestContainerRule();
+        final HiveMQTestContainerRule second = new HiveMQTestContainerRule();
+
+        HiveMQTestContainerRule.startAll(first, second);
+        connect(first.getMqttPort());
+        connect(second.getMqttPort());
+        first.stop();
+        second.stop();
+    }
+
+    private static void connect(final int mqttPort) {
+        final Mqtt5BlockingClient client = Mqtt5Client.builder()
+                .serverPort(mqttPort)
+                .buildBlocking();
+        client.connect();
+        client.disconnect();
+    }
+}
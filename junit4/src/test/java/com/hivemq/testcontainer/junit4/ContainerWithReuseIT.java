@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit4;
+
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import com.hivemq.testcontainer.core.LogOverflowPolicy;
+import org.junit.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assume.assumeTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requires 'testcontainers.reuse.enable=true' in ~/.testcontainers.properties.
+ * The reused container is removed at the end of the test.
+ */
+public class ContainerWithReuseIT {
+
+    @Test(timeout = 200_000)
+    public void test() throws Exception {
+        assumeTrue(TestcontainersConfiguration.getInstance().environmentSupportsReuse());
+
+        final HiveMQTestContainerRule rule =
+                new HiveMQTestContainerRule()
+                        .withReuse(true)
+                        .withStateReset();
+
+        rule.start();
+        final String containerId = rule.getContainerId();
+        try {
+            publishRetained(rule.getMqttPort());
+            assertTrue(receiveRetained(rule.getMqttPort()).isPresent());
+            rule.stop();
+
+            rule.start();
+            assertEquals(containerId, rule.getContainerId());
+            assertFalse(receiveRetained(rule.getMqttPort()).isPresent());
+            rule.stop();
+
+            final HiveMQTestContainerRule reattached =
+                    new HiveMQTestContainerRule()
+                            .withReuse(true)
+                            .withStateReset();
+            publishRetained(rule.getMqttPort());
+
+            reattached.start();
+            assertEquals(containerId, reattached.getContainerId());
+            assertFalse(receiveRetained(reattached.getMqttPort()).isPresent());
+            reattached.stop();
+        } finally {
+            // a reusable container is not stopped, so it would keep running after the build
+            DockerClientFactory.instance().client().removeContainerCmd(containerId).withForce(true).exec();
+        }
+    }
+
+    @Test(timeout = 200_000)
+    public void test_withoutStateReset_startTwice() throws Exception {
+        assumeTrue(TestcontainersConfiguration.getInstance().environmentSupportsReuse());
+
+        final HiveMQTestContainerRule rule =
+                new HiveMQTestContainerRule()
+                        .withReuse(true)
+                        .withAsyncLogOutput(100, LogOverflowPolicy.DROP);
+
+        rule.start();
+        final String containerId = rule.getContainerId();
+        try {
+            publishRetained(rule.getMqttPort());
+            rule.stop();
+
+            rule.start();
+            assertEquals(containerId, rule.getContainerId());
+            assertTrue(receiveRetained(rule.getMqttPort()).isPresent());
+            rule.stop();
+        } finally {
+            DockerClientFactory.instance().client().removeContainerCmd(containerId).withForce(true).exec();
+        }
+    }
+
+    private static void publishRetained(final int mqttPort) {
+        final Mqtt5BlockingClient publisher = Mqtt5Client.builder()
+                .serverPort(mqttPort)
+                .identifier("publisher")
+                .buildBlocking();
+        publisher.connect();
+        publisher.publishWith()
+                .topic("test/topic")
+                .retain(true)
+                .payload("retained".getBytes(StandardCharsets.UTF_8))
+                .send();
+        publisher.disconnect();
+    }
+
+    private static Optional<Mqtt5Publish> receiveRetained(final int mqttPort) throws InterruptedException {
+        final Mqtt5BlockingClient subscriber = Mqtt5Client.builder()
+                .serverPort(mqttPort)
+                .identifier("subscriber")
+                .buildBlocking();
+        try (final Mqtt5BlockingClient.Mqtt5Publishes publishes = subscriber.publishes(MqttGlobalPublishFilter.ALL)) {
+            subscriber.connect();
+            subscriber.subscribeWith().topicFilter("test/topic").send();
+            return publishes.receive(1, TimeUnit.SECONDS);
+        } finally {
+            subscriber.disconnect();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit4;
+
+import com.hivemq.testcontainer.core.HiveMQExtension;
+import com.hivemq.testcontainer.core.StartupReport;
+import com.hivemq.testcontainer.util.MyExtension;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContainerWithStartupReportIT {
+
+    @Test(timeout = 200_000)
+    public void test() throws Exception {
+        final HiveMQExtension hiveMQExtension = HiveMQExtension.builder()
+                .id("extension-1")
+                .name("my-extension")
+                .version("1.0")
+                .mainClass(MyExtension.class).build();
+
+        final HiveMQTestContainerRule rule =
+                new HiveMQTestContainerRule()
+                        .waitForExtension(hiveMQExtension)
+                        .withExtension(hiveMQExtension)
+                        .withStartupReportLogging();
+
+        assertNull(rule.getStartupReport());
+        rule.start();
+        final StartupReport report = rule.getStartupReport();
+        assertNotNull(report);
+        for (final String phase : Arrays.asList(
+                StartupReport.CONFIGURED,
+                StartupReport.IMAGE_RESOLVED,
+                StartupReport.CREATED,
+                StartupReport.FILES_COPIED,
+                StartupReport.RUNNING,
+                StartupReport.BROKER_JVM_STARTED,
+                StartupReport.BROKER_EXTENSION_STARTED + "my-extension",
+                StartupReport.BROKER_STARTED,
+                StartupReport.READY)) {
+            assertNotNull(report.getPhase(phase), phase);
+        }
+        assertNotNull(report.getBrokerReportedStartup());
+        assertEquals(StartupReport.READY, report.getPhases().get(report.getPhases().size() - 1).getName());
+        assertTrue(report.getTotal().compareTo(report.getBrokerReportedStartup()) > 0);
+        rule.stop();
+    }
+}
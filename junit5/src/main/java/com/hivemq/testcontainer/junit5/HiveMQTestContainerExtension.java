@@ -18,7 +18,9 @@ package com.hivemq.testcontainer.junit5;
 import com.hivemq.testcontainer.core.HiveMQTestContainerCore;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.testcontainers.utility.DockerImageName;
@@ -26,7 +28,13 @@ import org.testcontainers.utility.DockerImageName;
 /**
  * @author Yannick Weber
  */
-public class HiveMQTestContainerExtension extends HiveMQTestContainerCore<HiveMQTestContainerExtension> implements BeforeEachCallback, AfterEachCallback {
+public class HiveMQTestContainerExtension extends HiveMQTestContainerCore<HiveMQTestContainerExtension>
+        implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final @NotNull ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(HiveMQTestContainerExtension.class);
+
+    private volatile @NotNull Lifecycle lifecycle = Lifecycle.PER_TEST;
 
     public HiveMQTestContainerExtension() {
         super();
@@ -36,14 +44,86 @@ public class HiveMQTestContainerExtension extends HiveMQTestContainerCore<HiveMQ
         super(dockerImageName);
     }
 
+    /**
+     * Determines how long the container lives, see {@link Lifecycle}.
+     * The default is {@link Lifecycle#PER_TEST}.
+     * <p>
+     * {@link Lifecycle#PER_CLASS} and {@link Lifecycle#PER_SUITE} require the extension to be registered on a static
+     * field with {@link org.junit.jupiter.api.extension.RegisterExtension}.
+     * <p>
+     * Must be called before the container is started.
+     *
+     * @param lifecycle the lifecycle of the container
+     * @return self
+     * @since 2.0.0
+     */
+    public @NotNull HiveMQTestContainerExtension withLifecycle(final @NotNull Lifecycle lifecycle) {
+        this.lifecycle = lifecycle;
+        return self();
+    }
+
+    @Override
+    public void beforeAll(final @Nullable ExtensionContext context) {
+        if (lifecycle == Lifecycle.PER_CLASS) {
+            start();
+        } else if (lifecycle == Lifecycle.PER_SUITE) {
+            if (context == null) {
+                throw new IllegalStateException("The lifecycle PER_SUITE requires an extension context.");
+            }
+            context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(this, key -> {
+                start();
+                return (ExtensionContext.Store.CloseableResource) this::stop;
+            }, ExtensionContext.Store.CloseableResource.class);
+        }
+    }
+
+    @Override
+    public void afterAll(final @Nullable ExtensionContext context) {
+        if (lifecycle == Lifecycle.PER_CLASS) {
+            stop();
+        }
+    }
+
     @Override
     public void beforeEach(final @Nullable ExtensionContext context) {
-        start();
+        if (lifecycle == Lifecycle.PER_TEST) {
+            start();
+        } else if (getContainerId() == null) {
+            // beforeAll is only called for extensions registered in static fields
+            throw new IllegalStateException("The container was not started before the test, the lifecycle " +
+                    lifecycle + " requires the @RegisterExtension field to be static.");
+        }
     }
 
     @Override
     public void afterEach(final @Nullable ExtensionContext context) {
-        stop();
+        if (lifecycle == Lifecycle.PER_TEST) {
+            stop();
+        }
     }
 
+    /**
+     * The lifecycle of the container of a {@link HiveMQTestContainerExtension}.
+     *
+     * @since 2.0.0
+     */
+    public enum Lifecycle {
+
+        /**
+         * The container is started before and stopped after every test method.
+         */
+        PER_TEST,
+
+        /**
+         * The container is started once before all tests of the test class and stopped after all of them.
+         */
+        PER_CLASS,
+
+        /**
+         * The container is started once before the first test class that uses the extension
+         * and stopped when the test engine finishes, so every test class sharing the same extension instance
+         * shares the same started container.
+         */
+        PER_SUITE
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit5;
+
+import com.hivemq.testcontainer.core.HiveMQExtension;
+import com.hivemq.testcontainer.util.MyExtension;
+import com.hivemq.testcontainer.util.TestPublishModifiedUtil;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContainerWithClassLifecycleIT {
+
+    @RegisterExtension
+    static final HiveMQTestContainerExtension extension =
+            new HiveMQTestContainerExtension()
+                    .withLifecycle(HiveMQTestContainerExtension.Lifecycle.PER_CLASS)
+                    .waitForExtension("my-extension")
+                    .withExtension(HiveMQExtension.builder()
+                            .id("extension-1")
+                            .name("my-extension")
+                            .version("1.0")
+                            .mainClass(MyExtension.class).build());
+
+    private static @Nullable String containerId;
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test1() throws Exception {
+        assertSameContainer();
+        TestPublishModifiedUtil.testPublishModified(extension.getMqttPort());
+    }
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test2() throws Exception {
+        assertSameContainer();
+        TestPublishModifiedUtil.testPublishModified(extension.getMqttPort());
+    }
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test_notStartedBeforeAll_failsFast() {
+        final HiveMQTestContainerExtension notStarted = new HiveMQTestContainerExtension()
+                .withLifecycle(HiveMQTestContainerExtension.Lifecycle.PER_CLASS);
+
+        final IllegalStateException exception =
+                assertThrows(IllegalStateException.class, () -> notStarted.beforeEach(null));
+        assertTrue(exception.getMessage().contains("PER_CLASS"));
+        assertNull(notStarted.getContainerId());
+    }
+
+    private static void assertSameContainer() {
+        if (containerId == null) {
+            containerId = extension.getContainerId();
+        }
+        assertEquals(containerId, extension.getContainerId());
+    }
+}
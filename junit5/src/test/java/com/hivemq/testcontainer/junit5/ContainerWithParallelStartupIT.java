@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit5;
+
+import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ContainerWithParallelStartupIT {
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test_startAsync() throws Exception {
+        final HiveMQTestContainerExtension extension = new HiveMQTestContainerExtension();
+
+        assertSame(extension, extension.startAsync().get());
+        connect(extension.getMqttPort());
+        extension.stop();
+    }
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test_startAll() {
+        final HiveMQTestContainerExtension first = new HiveMQTestContainerExtension();
+        final HiveMQTestContainerExtension second = new HiveMQTestContainerExtension();
+
+        HiveMQTestContainerExtension.startAll(first, second);
+        connect(first.getMqttPort());
+        connect(second.getMqttPort());
+        first.stop();
+        second.stop();
+    }
+
+    private static void connect(final int mqttPort) {
+        final Mqtt5BlockingClient client = Mqtt5Client.builder()
+                .serverPort(mqttPort)
+                .buildBlocking();
+        client.connect();
+        client.disconnect();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit5;
+
+import com.hivemq.client.mqtt.MqttGlobalPublishFilter;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
+import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContainerWithStateResetIT {
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test() throws Exception {
+        final HiveMQTestContainerExtension extension =
+                new HiveMQTestContainerExtension()
+                        .withStateReset();
+
+        extension.beforeEach(null);
+
+        final Mqtt5BlockingClient publisher = Mqtt5Client.builder()
+                .serverPort(extension.getMqttPort())
+                .identifier("publisher")
+                .buildBlocking();
+        publisher.connect();
+        publisher.publishWith()
+                .topic("test/topic")
+                .retain(true)
+                .payload("retained".getBytes(StandardCharsets.UTF_8))
+                .send();
+        publisher.disconnect();
+
+        assertTrue(receiveRetained(extension.getMqttPort()).isPresent());
+        extension.resetState();
+        assertFalse(receiveRetained(extension.getMqttPort()).isPresent());
+
+        extension.afterEach(null);
+    }
+
+    private static Optional<Mqtt5Publish> receiveRetained(final int mqttPort) throws InterruptedException {
+        final Mqtt5BlockingClient subscriber = Mqtt5Client.builder()
+                .serverPort(mqttPort)
+                .identifier("subscriber")
+                .buildBlocking();
+        try (final Mqtt5BlockingClient.Mqtt5Publishes publishes = subscriber.publishes(MqttGlobalPublishFilter.ALL)) {
+            subscriber.connect();
+            subscriber.subscribeWith().topicFilter("test/topic").send();
+            return publishes.receive(1, TimeUnit.SECONDS);
+        } finally {
+            subscriber.disconnect();
+        }
+    }
+}
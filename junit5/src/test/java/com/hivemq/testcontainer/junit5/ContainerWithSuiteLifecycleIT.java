@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit5;
+
+import com.hivemq.testcontainer.core.HiveMQExtension;
+import com.hivemq.testcontainer.util.MyExtension;
+import com.hivemq.testcontainer.util.TestPublishModifiedUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shares its container with {@link ContainerWithSuiteLifecycleSecondIT}.
+ */
+public class ContainerWithSuiteLifecycleIT {
+
+    static final @NotNull HiveMQTestContainerExtension SUITE_EXTENSION =
+            new HiveMQTestContainerExtension()
+                    .withLifecycle(HiveMQTestContainerExtension.Lifecycle.PER_SUITE)
+                    .waitForExtension("my-extension")
+                    .withExtension(HiveMQExtension.builder()
+                            .id("extension-1")
+                            .name("my-extension")
+                            .version("1.0")
+                            .mainClass(MyExtension.class).build());
+
+    private static @Nullable String containerId;
+
+    @RegisterExtension
+    static final HiveMQTestContainerExtension extension = SUITE_EXTENSION;
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test() throws Exception {
+        assertSameContainer();
+        TestPublishModifiedUtil.testPublishModified(extension.getMqttPort());
+    }
+
+    /**
+     * Records the container of the test class that runs first and asserts that the other test class uses the same.
+     */
+    static synchronized void assertSameContainer() {
+        assertTrue(SUITE_EXTENSION.isRunning());
+        if (containerId == null) {
+            containerId = SUITE_EXTENSION.getContainerId();
+        }
+        assertEquals(containerId, SUITE_EXTENSION.getContainerId());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 HiveMQ and the HiveMQ Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hivemq.testcontainer.junit5;
+
+import com.hivemq.testcontainer.core.GradleHiveMQExtensionSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GradleExtensionCacheIT {
+
+    @Test
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    void test() throws Exception {
+        final String first = supplier().get().getResolvedPath();
+        final String second = supplier().get().getResolvedPath();
+        final String uncached = supplier().uncached().get().getResolvedPath();
+
+        assertEquals(first, second);
+        // gradle ran again, but produced the same extension zip
+        assertEquals(first, uncached);
+    }
+
+    private @NotNull GradleHiveMQExtensionSupplier supplier() throws Exception {
+        return new GradleHiveMQExtensionSupplier(new File(getClass().getResource("/gradle-extension").toURI()))
+                .quiet();
+    }
+}